@@ -1,9 +1,11 @@
 package com.socialstory.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.socialstory.service.CacheInvalidationBus;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,11 +16,27 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(CacheInvalidationBus invalidationBus) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("storiesPageCache");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterWrite(5, TimeUnit.MINUTES)
                 .maximumSize(100));
-        return cacheManager;
+
+        // Reader snapshots are evicted explicitly on every story write, the expiry is only a safety net
+        cacheManager.registerCustomCache("storyViewCache", Caffeine.newBuilder()
+                .expireAfterWrite(1, TimeUnit.HOURS)
+                .maximumSize(200)
+                .build());
+
+        // Admin role decisions, evicted explicitly by UserAdminService when a role changes
+        cacheManager.registerCustomCache("adminRoleCache", Caffeine.newBuilder()
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .maximumSize(1000)
+                .build());
+
+        // Caches stay node-local; evictions are broadcast to the other nodes through the invalidation bus.
+        // Inside a transaction, evictions and puts wait for the commit, so a concurrent reader cannot re-cache
+        // the pre-commit state (e.g. a story view snapshot for its whole TTL) right after the eviction
+        return new TransactionAwareCacheManagerProxy(new BroadcastingCacheManager(cacheManager, invalidationBus));
     }
-}
\ No newline at end of file
+}
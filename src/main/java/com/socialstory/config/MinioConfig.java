@@ -26,6 +26,10 @@ public class MinioConfig {
     @Value("${minio.bucket.pages}")
     private String pagesBucket;
 
+    // Off in tests, which must not reach the real object storage at startup
+    @Value("${minio.initialize-buckets:true}")
+    private boolean initializeBuckets;
+
     @Bean
     public MinioClient minioClient() {
         return MinioClient.builder()
@@ -36,6 +40,9 @@ public class MinioConfig {
 
     @PostConstruct
     public void initializeBuckets() throws Exception {
+        if (!initializeBuckets) {
+            return;
+        }
         MinioClient client = MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
@@ -0,0 +1,100 @@
+package com.socialstory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs EXPLAIN on the SQL shapes of the hot repository queries and reports every full table scan and every filesort.
+ * QueryPlanVerifierTest holds the plans to this on seeded, analyzed tables. At startup the check is opt-in with
+ * app.query-plans.verify=true, and app.query-plans.fail-on-full-scan=true turns the warnings into a startup
+ * failure; the optimizer may choose to scan tables that are still small, so enable it on production-sized data.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.query-plans.verify", havingValue = "true")
+public class QueryPlanVerifier {
+
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("published stories list",
+                "SELECT id, title FROM stories WHERE status = 'PUBLISHED' ORDER BY created_at DESC LIMIT 12");
+        HOT_QUERIES.put("pending stories list",
+                "SELECT id, title FROM stories WHERE status = 'DRAFT' ORDER BY submitted_for_approval_at DESC LIMIT 12");
+        HOT_QUERIES.put("story pages",
+                "SELECT * FROM story_pages WHERE story_id = 1 ORDER BY page_order");
+        HOT_QUERIES.put("questions by story",
+                "SELECT q.* FROM questions q JOIN story_pages p ON p.id = q.page_id WHERE p.story_id = 1");
+        HOT_QUERIES.put("interaction by user and story",
+                "SELECT * FROM user_story_interactions WHERE user_id = 1 AND story_id = 1");
+        HOT_QUERIES.put("readers of a story",
+                "SELECT COUNT(DISTINCT user_id) FROM user_story_interactions WHERE story_id = 1");
+        HOT_QUERIES.put("unread stories",
+                "SELECT s.id FROM stories s WHERE NOT EXISTS (SELECT 1 FROM user_story_interactions usi WHERE usi.story_id = s.id AND usi.user_id = 1)");
+        HOT_QUERIES.put("recent interactions",
+                "SELECT * FROM user_story_interactions ORDER BY last_read_at DESC LIMIT 10");
+        HOT_QUERIES.put("user by email",
+                "SELECT * FROM app_users WHERE email = 'reader@example.com'");
+        HOT_QUERIES.put("admin role check",
+                "SELECT 1 FROM user_admin WHERE email = 'reader@example.com' AND account_type = 'ADMIN'");
+        HOT_QUERIES.put("sessions in range",
+                "SELECT COUNT(*) FROM user_sessions WHERE login_time >= CURRENT_DATE AND login_time < CURRENT_DATE + INTERVAL 1 DAY");
+        HOT_QUERIES.put("active users in range",
+                "SELECT COUNT(DISTINCT user_id) FROM user_sessions WHERE login_time >= CURRENT_DATE - INTERVAL 7 DAY AND login_time <= NOW()");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean failOnFullScan;
+
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate,
+                             @Value("${app.query-plans.fail-on-full-scan:false}") boolean failOnFullScan) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnFullScan = failOnFullScan;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        List<String> problems = findProblems();
+        if (problems.isEmpty()) {
+            log.info("Query plans verified: {} hot queries use indexes", HOT_QUERIES.size());
+            return;
+        }
+        String message = "Hot queries without a usable index:\n  " + String.join("\n  ", problems);
+        if (failOnFullScan) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    /**
+     * EXPLAIN every hot query and describe each full scan or filesort in its plan
+     */
+    List<String> findProblems() {
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+            // The anti-join's outer scan of stories is expected: every story is a candidate
+            boolean outerScanExpected = query.getKey().equals("unread stories");
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + query.getValue())) {
+                String table = (String) row.get("table");
+                if ("ALL".equals(row.get("type")) && !(outerScanExpected && "s".equals(table))) {
+                    problems.add(String.format("%s: full scan of %s (%s rows)", query.getKey(), table, row.get("rows")));
+                }
+                Object extra = row.get("Extra");
+                if (extra != null && extra.toString().contains("Using filesort")) {
+                    problems.add(String.format("%s: filesort on %s (%s)", query.getKey(), table, extra));
+                }
+            }
+        }
+        return problems;
+    }
+}
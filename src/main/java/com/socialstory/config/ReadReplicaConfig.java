@@ -0,0 +1,280 @@
+package com.socialstory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read/write split. When app.datasource.replica.urls lists one or more read replicas, the application DataSource
+ * becomes a router: work inside a @Transactional(readOnly = true) transaction goes to a healthy replica (round
+ * robin), everything else - writes, non-transactional JDBC, Flyway, the session store - to the primary.
+ * The router sits behind a LazyConnectionDataSourceProxy, so the physical connection is only chosen at the first
+ * statement, after Spring has marked the transaction read-only.
+ * Replicas are probed for replication lag; one that lags more than max-lag-seconds, has stopped replicating or
+ * cannot be reached is skipped until a later probe finds it healthy, and with no healthy replica reads stay on
+ * the primary.
+ * Reads that fill a cache must not come from a lagging replica: Spring @Cacheable reads use read-write transactions,
+ * and read-only transactions read the Hibernate second-level cache but never put into it.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    static final String PRIMARY = "primary";
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        String username = environment.getProperty("app.datasource.replica.username", properties.determineUsername());
+        String password = environment.getProperty("app.datasource.replica.password", properties.determinePassword());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : environment.getProperty("app.datasource.replica.urls", String[].class, new String[0])) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url.trim()).username(username).password(password).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primary, replicas,
+                environment.getProperty("app.datasource.replica.max-lag-seconds", Long.class, 2L));
+        router.afterPropertiesSet();
+        log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        return new RoutingDataSourceProxy(router);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean factoryBean) {
+                    factoryBean.setJpaDialect(new ReplicaAwareHibernateJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource) {
+        return new ReplicaLagMonitor(unwrapRouter(dataSource));
+    }
+
+    private static ReplicaRoutingDataSource unwrapRouter(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(ReplicaRoutingDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Application DataSource is not replica-routed", e);
+        }
+    }
+
+    /**
+     * Picks the primary or a healthy replica per connection, based on the read-only flag of the current transaction
+     */
+    public static class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+        private final HikariDataSource primary;
+        private final List<HikariDataSource> replicas;
+        private final long maxLagSeconds;
+        // Replaced as a whole by every probe, so request threads always see a complete view
+        private volatile boolean[] healthy;
+        private volatile long[] lagSeconds;
+        private final AtomicInteger next = new AtomicInteger();
+
+        ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long maxLagSeconds) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.maxLagSeconds = maxLagSeconds;
+            this.healthy = new boolean[replicas.size()];
+            this.lagSeconds = new long[replicas.size()];
+
+            Map<Object, Object> targets = new HashMap<>();
+            targets.put(PRIMARY, primary);
+            for (int i = 0; i < replicas.size(); i++) {
+                targets.put(i, replicas.get(i));
+            }
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(primary);
+            setLenientFallback(false);
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()
+                    || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return PRIMARY;
+            }
+            boolean[] inRotation = healthy;
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                int candidate = (start + i) % replicas.size();
+                if (inRotation[candidate]) {
+                    return candidate;
+                }
+            }
+            return PRIMARY;
+        }
+
+        /**
+         * Measure the lag of every replica and update which ones take reads
+         */
+        synchronized void probe() {
+            boolean[] nowHealthy = new boolean[replicas.size()];
+            long[] lags = new long[replicas.size()];
+            for (int i = 0; i < replicas.size(); i++) {
+                Long lag = measureLag(replicas.get(i));
+                nowHealthy[i] = lag != null && lag <= maxLagSeconds;
+                lags[i] = lag != null ? lag : -1;
+                if (nowHealthy[i] != healthy[i]) {
+                    log.info("Replica {} is now {} (lag {} s)", i, nowHealthy[i] ? "in rotation" : "out of rotation", lag);
+                }
+            }
+            lagSeconds = lags;
+            healthy = nowHealthy;
+        }
+
+        // Seconds behind the source, or null when replication is stopped or the replica is unreachable
+        private static Long measureLag(DataSource replica) {
+            try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+                ResultSet status;
+                String column;
+                try {
+                    status = statement.executeQuery("SHOW REPLICA STATUS");
+                    column = "Seconds_Behind_Source";
+                } catch (SQLException e) {
+                    // Servers before MySQL 8.0.22 and MariaDB only know the old syntax
+                    status = statement.executeQuery("SHOW SLAVE STATUS");
+                    column = "Seconds_Behind_Master";
+                }
+                try (ResultSet rs = status) {
+                    if (!rs.next()) {
+                        // Not configured as a replica (e.g. a local copy used in development): nothing to lag behind
+                        return 0L;
+                    }
+                    long lag = rs.getLong(column);
+                    return rs.wasNull() ? null : lag;
+                }
+            } catch (SQLException e) {
+                log.debug("Replica lag probe failed: {}", e.getMessage());
+                return null;
+            }
+        }
+
+        public Map<String, Object> getStatistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("maxLagSeconds", maxLagSeconds);
+            boolean[] inRotation = healthy;
+            long[] lags = lagSeconds;
+            for (int i = 0; i < replicas.size(); i++) {
+                stats.put("replica-" + i, Map.of("healthy", inRotation[i], "lagSeconds", lags[i]));
+            }
+            return stats;
+        }
+
+        @Override
+        public void close() {
+            replicas.forEach(HikariDataSource::close);
+            primary.close();
+        }
+    }
+
+    /**
+     * Starts read-only transactions, which may be served by a replica, with a get-only second-level cache mode:
+     * an entity loaded from a lagging replica would otherwise be cached until it expires
+     */
+    static class ReplicaAwareHibernateJpaDialect extends HibernateJpaDialect {
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws PersistenceException, SQLException, TransactionException {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            if (definition.isReadOnly()) {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+            return transactionData;
+        }
+    }
+
+    /**
+     * Lazy connection proxy in front of the router that closes the pools on shutdown
+     */
+    static class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+        RoutingDataSourceProxy(ReplicaRoutingDataSource router) {
+            super(router);
+        }
+
+        @Override
+        public void close() {
+            ((ReplicaRoutingDataSource) obtainTargetDataSource()).close();
+        }
+    }
+
+    /**
+     * Schedules the replica lag probes
+     */
+    public static class ReplicaLagMonitor {
+
+        private final ReplicaRoutingDataSource router;
+
+        ReplicaLagMonitor(ReplicaRoutingDataSource router) {
+            this.router = router;
+            router.probe();
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+        public void probe() {
+            router.probe();
+        }
+
+        public Map<String, Object> getStatistics() {
+            return router.getStatistics();
+        }
+    }
+}
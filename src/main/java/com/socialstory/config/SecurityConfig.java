@@ -1,18 +1,25 @@
 package com.socialstory.config;
 
+import com.socialstory.model.SessionUser;
 import com.socialstory.model.User;
-import com.socialstory.model.UserSession;
+import com.socialstory.service.CustomOAuth2UserService;
+import com.socialstory.service.UserAdminService;
 import com.socialstory.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 
 import jakarta.servlet.ServletException;
@@ -29,21 +36,32 @@ public class SecurityConfig {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Autowired
+    private CustomOAuth2UserService customOAuth2UserService;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
                                 .requestMatchers("/", "/stories", "/stories/view/**", "/css/**", "/js/**", "/stories/image/**", "/stories/cover/**").permitAll()
-                                .requestMatchers("/admin/**").authenticated()
-                                .requestMatchers("/stories/create", "/stories/edit/**", "/stories/delete/**").authenticated()
+                                .requestMatchers("/admin/**", "/stories/delete/**").access(adminAuthorizationManager())
+                                .requestMatchers("/stories/create", "/stories/edit/**").authenticated()
                                 .anyRequest().permitAll()
                 )
                 .oauth2Login(oauth2 ->
                         oauth2
                                 .loginPage("/login")
+                                .userInfoEndpoint(userInfo -> userInfo.userService(customOAuth2UserService))
                                 .successHandler(authenticationSuccessHandler())
                 )
+                .exceptionHandling(exceptions ->
+                        exceptions.accessDeniedHandler((request, response, accessDeniedException) ->
+                                response.sendRedirect("/stories"))
+                )
                 .logout(logout ->
                         logout
                                 .logoutSuccessUrl("/stories")
@@ -55,6 +73,31 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Admin requests need the ROLE_ADMIN authority granted at login. The role is re-confirmed against the
+     * TTL-cached decision in UserAdminService, so a revoked role (which evicts that cache entry) stops
+     * working on the next request without a database check on every request.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> adminAuthorizationManager() {
+        return (authentication, context) -> {
+            Authentication auth = authentication.get();
+            if (auth == null || !hasAdminAuthority(auth) || !(auth.getPrincipal() instanceof OAuth2User principal)) {
+                return new AuthorizationDecision(false);
+            }
+            String email = principal.getAttribute("email");
+            return new AuthorizationDecision(email != null && userAdminService.isUserAdmin(email));
+        };
+    }
+
+    private static boolean hasAdminAuthority(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (CustomOAuth2UserService.ROLE_ADMIN.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private AuthenticationSuccessHandler authenticationSuccessHandler() {
         return new AuthenticationSuccessHandler() {
             @Override
@@ -66,9 +109,10 @@ public class SecurityConfig {
                     // Store user and session info in the HTTP session for quick access
                     HttpSession session = request.getSession();
 
-                    UserSession userSession = userService.startUserSession(user, session);
-                    session.setAttribute("currentUser", user);
-                    session.setAttribute("currentSession", userSession);
+                    // Only a slim serializable principal goes into the shared session store; the user_sessions
+                    // row is written asynchronously and found again through the session id
+                    userService.startUserSession(user, session);
+                    session.setAttribute("currentUser", SessionUser.from(user, hasAdminAuthority(authentication)));
                 }
 
                 response.sendRedirect("/stories");
@@ -83,12 +127,10 @@ public class SecurityConfig {
                                Authentication authentication) {
                 HttpSession session = request.getSession(false);
                 if (session != null) {
-                    UserSession userSession = (UserSession) session.getAttribute("currentSession");
-                    if (userSession != null) {
-                        userService.endUserSession(userSession);
+                    if (session.getAttribute("currentUser") != null) {
+                        userService.endUserSession(session);
                     }
                     session.removeAttribute("currentUser");
-                    session.removeAttribute("currentSession");
                 }
             }
         };
@@ -0,0 +1,29 @@
+package com.socialstory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session store selection. By default Spring Boot backs HTTP sessions with Spring Session JDBC so every node
+ * behind Cloudflare sees the same sessions. Setting app.session.store=memory swaps in a node-local map,
+ * which is enough for tests and single-node development.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "memory")
+@EnableSpringHttpSession
+public class SessionStoreConfig {
+
+    @Bean
+    public MapSessionRepository sessionRepository(@Value("${spring.session.timeout:30m}") Duration timeout) {
+        MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+        repository.setDefaultMaxInactiveInterval(timeout);
+        return repository;
+    }
+}
@@ -0,0 +1,203 @@
+package com.socialstory.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.session.SessionRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the SQL statements each HTTP request executes and checks them against the endpoint's @SqlBudget.
+ * Budgets are enforced by SqlBudgetTest; at runtime an exceeded budget is logged.
+ * The DataSource is wrapped so every statement is counted, whether it comes from Hibernate or plain JDBC,
+ * and so the time each request holds pooled connections is measured.
+ */
+@Slf4j
+@Configuration
+public class SqlStatementConfig implements WebMvcConfigurer {
+
+    static final String BUDGET_ATTRIBUTE = SqlStatementConfig.class.getName() + ".budget";
+    static final String STATS_ATTRIBUTE = SqlStatementConfig.class.getName() + ".stats";
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Spring Session saves the session when the response commits, which happens while the view renders inside the
+    // counted request; that write belongs to the session store, so its statements are not charged to the endpoint
+    @Bean
+    public static BeanPostProcessor uncountedSessionRepositoryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SessionRepository<?>) {
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        SqlStatementCounter.Stats suspended = SqlStatementCounter.suspend();
+                        try {
+                            return invocation.proceed();
+                        } finally {
+                            SqlStatementCounter.resume(suspended);
+                        }
+                    });
+                    return proxyFactory.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // After Spring Security, which runs after Spring Session, so the security checks are not charged to the endpoint
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter() {
+        FilterRegistrationBean<SqlBudgetFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new SqlBudgetFilter());
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registrationBean;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod handlerMethod) {
+                    SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+                    if (budget != null) {
+                        request.setAttribute(BUDGET_ATTRIBUTE, budget.value());
+                    }
+                }
+                return true;
+            }
+        });
+    }
+
+    public static class SqlBudgetFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            SqlStatementCounter.start();
+            SqlStatementCounter.Stats stats;
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                stats = SqlStatementCounter.stop();
+                request.setAttribute(STATS_ATTRIBUTE, stats);
+            }
+
+            // The response is already written, so an exceeded budget can only be reported; tests assert on the stats
+            Integer budget = (Integer) request.getAttribute(BUDGET_ATTRIBUTE);
+            if (budget != null && stats.getStatements() > budget) {
+                log.warn("{} {} executed {} SQL statements, budget is {} (connection held {} ms)",
+                        request.getMethod(), request.getRequestURI(), stats.getStatements(), budget,
+                        stats.getConnectionHeldMillis());
+            } else if (log.isDebugEnabled() && stats.getConnections() > 0) {
+                log.debug("{} {} executed {} SQL statements on {} connection(s) held for {} ms",
+                        request.getMethod(), request.getRequestURI(), stats.getStatements(),
+                        stats.getConnections(), stats.getConnectionHeldMillis());
+            }
+        }
+    }
+
+    /**
+     * DataSource wrapper handing out connections that report statement executions and hold time to SqlStatementCounter
+     */
+    public static class StatementCountingDataSource extends DelegatingDataSource implements Closeable {
+
+        public StatementCountingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        // The wrapper replaces the pool as the bean, so it has to pass the container's shutdown on
+        @Override
+        public void close() throws IOException {
+            if (getTargetDataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countingConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countingConnection(super.getConnection(username, password));
+        }
+
+        private static Connection countingConnection(Connection target) {
+            long acquiredAt = System.nanoTime();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && !target.isClosed()) {
+                            SqlStatementCounter.recordConnectionHeld(System.nanoTime() - acquiredAt);
+                        }
+                        Object result = invoke(target, method, args);
+                        if (result instanceof Statement statement && method.getName().matches("createStatement|prepareStatement|prepareCall")) {
+                            return countingStatement(statement);
+                        }
+                        return result;
+                    });
+        }
+
+        private static Statement countingStatement(Statement target) {
+            Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                    : target instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    SqlStatementCounter.recordStatement();
+                }
+                return invoke(target, method, args);
+            };
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
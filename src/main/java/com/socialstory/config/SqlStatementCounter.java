@@ -0,0 +1,71 @@
+package com.socialstory.config;
+
+/**
+ * Per-thread counter of SQL statements executed and connection time held through the application DataSource.
+ * A request starts the counter in SqlStatementConfig's filter; statements on threads without a started counter are ignored.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Stats());
+    }
+
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats != null ? stats : new Stats();
+    }
+
+    /**
+     * Stop charging statements to the current counter until resume is called with the returned value
+     */
+    public static Stats suspend() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    public static void resume(Stats suspended) {
+        if (suspended != null) {
+            CURRENT.set(suspended);
+        }
+    }
+
+    public static void recordStatement() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    public static void recordConnectionHeld(long nanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connections++;
+            stats.connectionHeldNanos += nanos;
+        }
+    }
+
+    public static class Stats {
+        private int statements;
+        private int connections;
+        private long connectionHeldNanos;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public long getConnectionHeldMillis() {
+            return connectionHeldNanos / 1_000_000;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 // AdminApprovalController.java
 package com.socialstory.controller;
 
-import com.socialstory.model.Story;
-import com.socialstory.model.User;
+import com.socialstory.config.SqlBudget;
+import com.socialstory.model.StoryView;
+import com.socialstory.model.SessionUser;
 import com.socialstory.service.StoryService;
-import com.socialstory.service.UserAdminService;
+import com.socialstory.service.StoryViewService;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -19,20 +20,14 @@ import org.springframework.web.bind.annotation.*;
 public class AdminApprovalController {
 
     private final StoryService storyService;
-    private final UserAdminService userAdminService;
+    private final StoryViewService storyViewService;
 
+    @SqlBudget(2)
     @GetMapping
     public String approvalDashboard(
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
-            Model model,
-            HttpSession session) {
-
-        // Check if user is admin
-        User currentUser = (User) session.getAttribute("currentUser");
-        if (currentUser == null || !userAdminService.isUserAdmin(currentUser.getEmail())) {
-            return "redirect:/stories";
-        }
+            Model model) {
 
         // Get pending stories
         Page<com.socialstory.model.StoryListDTO> pendingStories = storyService.getPendingStoriesPage(page, size);
@@ -45,15 +40,11 @@ public class AdminApprovalController {
     }
 
     @GetMapping("/view/{id}")
-    public String viewStory(@PathVariable Long id, Model model, HttpSession session) {
-        // Check if user is admin
-        User currentUser = (User) session.getAttribute("currentUser");
-        if (currentUser == null || !userAdminService.isUserAdmin(currentUser.getEmail())) {
-            return "redirect:/stories";
-        }
-
-        Story story = storyService.getStoryById(id);
+    public String viewStory(@PathVariable Long id, Model model) {
+        // Pending stories are not cached, compile a fresh snapshot for review
+        StoryView story = storyViewService.compileStoryView(id);
         model.addAttribute("story", story);
+        model.addAttribute("questionsByPage", story.getQuestionsByPage());
         model.addAttribute("isApprovalView", true);
 
         return "story/view";
@@ -62,13 +53,13 @@ public class AdminApprovalController {
     @CacheEvict(value = "storiesPageCache", allEntries = true)
     @PostMapping("/approve/{id}")
     public String approveStory(@PathVariable Long id, HttpSession session) {
-        // Check if user is admin
-        User currentUser = (User) session.getAttribute("currentUser");
-        if (currentUser == null || !userAdminService.isUserAdmin(currentUser.getEmail())) {
-            return "redirect:/stories";
-        }
+        // Admin access is enforced by SecurityConfig
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
 
         storyService.approveStory(id, currentUser.getEmail());
+
+        // Precompile the reader snapshot so the first readers hit the cache
+        storyViewService.refreshStoryView(id);
         return "redirect:/admin/approvals";
     }
 
@@ -78,11 +69,8 @@ public class AdminApprovalController {
             @RequestParam String reason,
             HttpSession session) {
 
-        // Check if user is admin
-        User currentUser = (User) session.getAttribute("currentUser");
-        if (currentUser == null || !userAdminService.isUserAdmin(currentUser.getEmail())) {
-            return "redirect:/stories";
-        }
+        // Admin access is enforced by SecurityConfig
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
 
         storyService.rejectStory(id, currentUser.getEmail(), reason);
         return "redirect:/admin/approvals";
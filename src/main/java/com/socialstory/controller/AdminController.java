@@ -1,22 +1,27 @@
 package com.socialstory.controller;
 
-import com.socialstory.service.UserAdminService;
+import com.socialstory.config.SqlBudget;
+import com.socialstory.service.CacheStatisticsService;
+import com.socialstory.service.DashboardRollupService;
+import com.socialstory.service.InteractionEventApplier;
+import com.socialstory.service.InteractionEventLog;
+import com.socialstory.service.LiveMetricsHub;
+import com.socialstory.service.UniqueCountService;
 import com.socialstory.service.UserService;
-import com.socialstory.service.StoryService;
-import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/admin")
@@ -24,54 +29,50 @@ import java.util.stream.Collectors;
 public class AdminController {
 
     private final UserService userService;
-    private final StoryService storyService;
-    private final UserAdminService userAdminService;
+    private final DashboardRollupService dashboardRollupService;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final InteractionEventLog interactionEventLog;
+    private final InteractionEventApplier interactionEventApplier;
+    private final UniqueCountService uniqueCountService;
+    private final LiveMetricsHub liveMetricsHub;
 
+    @SqlBudget(8)
     @GetMapping
-    public String adminDashboard(Model model, HttpSession session) {
-        com.socialstory.model.User currentUser = (com.socialstory.model.User) session.getAttribute("currentUser");
-        if (currentUser == null || !userAdminService.isUserAdmin(currentUser.getEmail())) {
-            return "redirect:/stories";
-        }
+    public String adminDashboard(Model model) {
+        // Admin access is enforced by SecurityConfig
 
-        // Get metrics from user service
-        Map<String, Object> metrics = userService.getMetricsForAdminDashboard();
-
-        // Add total stories count
-        metrics.put("totalStories", storyService.getAllStories().size());
-
-        // Get story data for chart
-        List<Long> topStoryIds = (List<Long>) metrics.get("topStories");
-        List<Map<String, Object>> storyData = new ArrayList<>();
-
-        if (topStoryIds != null && !topStoryIds.isEmpty()) {
-            for (Long storyId : topStoryIds) {
-                Map<String, Object> storyMap = new HashMap<>();
-                storyMap.put("title", storyService.getStoryById(storyId).getTitle());
-                storyMap.put("readCount", userService.getStoryReadCount(storyId));
-                storyData.add(storyMap);
-            }
-        }
-        metrics.put("storyData", storyData);
-
-        // Generate activity data for last 7 days
-        List<Map<String, Object>> activityData = new ArrayList<>();
+        // Everything but the activity feed comes from the rollup tables and unique-count sketches
+        Map<String, Object> metrics = dashboardRollupService.getDashboardMetrics();
         LocalDate today = LocalDate.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            Map<String, Object> dayData = new HashMap<>();
-            dayData.put("date", date.format(formatter));
-            dayData.put("activeUsers", userService.getActiveUsersForDate(date));
-            activityData.add(dayData);
-        }
-        metrics.put("activityData", activityData);
-
-        // Get recent activities
-        model.addAttribute("recentActivities", userService.getRecentActivities(10));
+        metrics.put("weeklyActiveUsers", uniqueCountService.getActiveUsers(today.minusDays(6), today));
+        metrics.put("monthlyActiveUsers", uniqueCountService.getActiveUsers(today.minusDays(29), today));
         model.addAttribute("metrics", metrics);
+        model.addAttribute("recentActivities", userService.getRecentActivities(10));
 
         return "admin/index";
     }
-}
\ No newline at end of file
+
+    /**
+     * Live dashboard stream: a snapshot of today's totals, then deltas from the shared metrics hub
+     */
+    @GetMapping(value = "/api/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter liveMetrics() {
+        return liveMetricsHub.subscribe();
+    }
+
+    @GetMapping("/api/cache-stats")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> cacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getSecondLevelCacheStatistics());
+    }
+
+    @GetMapping("/api/event-log-stats")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> eventLogStatistics() {
+        Map<String, Object> stats = new HashMap<>(interactionEventLog.getStatistics());
+        stats.put("consumers", List.of(interactionEventApplier.getStatistics(), dashboardRollupService.getStatistics(),
+                uniqueCountService.getStatistics()));
+        return ResponseEntity.ok(stats);
+    }
+}
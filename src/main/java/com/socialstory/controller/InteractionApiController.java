@@ -1,10 +1,15 @@
 package com.socialstory.controller;
 
+import com.socialstory.model.InteractionEventDTO;
+import com.socialstory.model.SessionUser;
 import com.socialstory.service.UserService;
+import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -12,8 +17,37 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class InteractionApiController {
 
+    private static final int MAX_EVENTS_PER_BATCH = 200;
+
     private final UserService userService;
 
+    /**
+     * Batched reader events for the logged-in reader's interaction with a story, sent by story.js
+     * with navigator.sendBeacon when the tab is hidden or closed
+     */
+    @PostMapping("/story/{storyId}/events")
+    public ResponseEntity<?> recordStoryEvents(@PathVariable Long storyId, @RequestBody List<InteractionEventDTO> events,
+                                               HttpSession session) {
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (events.size() > MAX_EVENTS_PER_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Too many events in one batch"));
+        }
+        userService.recordStoryEvents(currentUser.getId(), storyId, events);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/events")
+    public ResponseEntity<?> recordEvents(@PathVariable Long id, @RequestBody List<InteractionEventDTO> events) {
+        if (events.size() > MAX_EVENTS_PER_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Too many events in one batch"));
+        }
+        userService.applyInteractionEvents(id, events);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/{id}/time")
     public ResponseEntity<?> updateTimeSpent(@PathVariable Long id, @RequestBody Map<String, Long> data) {
         userService.updateTimeSpent(id, data.get("seconds"));
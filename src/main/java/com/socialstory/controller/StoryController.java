@@ -1,5 +1,6 @@
 package com.socialstory.controller;
 
+import com.socialstory.config.SqlBudget;
 import com.socialstory.model.*;
 import com.socialstory.service.*;
 import com.socialstory.repository.StoryPageRepository;
@@ -26,12 +27,16 @@ import java.util.*;
 public class StoryController {
 
     private final StoryService storyService;
+    private final StoryViewService storyViewService;
     private final StoryPageRepository storyPageRepository;
     private final QuestionService questionService;
     private final UserService userService;
-    private final UserAdminService userAdminService;
     private final MinioStorageService minioStorageService;
+    private final TrendingService trendingService;
+    private final UniqueCountService uniqueCountService;
+    private final RecommendationService recommendationService;
 
+    @SqlBudget(4)
     @GetMapping
     public String listStories(
             @RequestParam(name = "page", defaultValue = "0") int page,
@@ -47,9 +52,12 @@ public class StoryController {
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", storyPage.getTotalPages());
         model.addAttribute("totalItems", storyPage.getTotalElements());
+        model.addAttribute("trendingStories", trendingService.getTrending());
+        model.addAttribute("uniqueReaders", uniqueCountService.getUniqueReaders(
+                storyPage.getContent().stream().map(StoryListDTO::getId).toList()));
 
         // Add unread story indicator data for logged-in users
-        User currentUser = (User) session.getAttribute("currentUser");
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
         if (currentUser != null) {
             Set<Long> unreadStories = userService.getUnreadStoryIds(currentUser.getId());
             model.addAttribute("unreadStories", unreadStories);
@@ -65,6 +73,8 @@ public class StoryController {
         return "story/create";
     }
 
+    // Story insert, pooled id blocks for pages and questions, one insert batch each
+    @SqlBudget(8)
     @PostMapping("/create")
     public String createStory(@ModelAttribute Story story,
                               @RequestParam(value = "imageFile", required = false) List<MultipartFile> images,
@@ -76,7 +86,7 @@ public class StoryController {
             story.setPages(new ArrayList<>());
         }
 
-        User currentUser = (User) session.getAttribute("currentUser");
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
         if (currentUser != null) {
             story.setChangedBy(currentUser.getEmail());
         }
@@ -93,62 +103,45 @@ public class StoryController {
     public String submitForApproval(@PathVariable Long id,
                                     RedirectAttributes redirectAttributes,
                                     HttpSession session) {
-        Story story = storyService.getStoryById(id);
-
         // Set user information
-        User currentUser = (User) session.getAttribute("currentUser");
-        if (currentUser != null) {
-            story.setChangedBy(currentUser.getEmail());
-        }
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
+        String changedBy = currentUser != null ? currentUser.getEmail() : null;
 
-        storyService.submitForApproval(id);
+        storyService.submitForApproval(id, changedBy);
         redirectAttributes.addFlashAttribute("message", "Story submitted for approval!");
         return "redirect:/stories";
     }
 
+    @SqlBudget(2)
     @GetMapping("/view/{id}")
     public String viewStory(@PathVariable Long id, Model model, HttpSession session) {
-        Story story = storyService.getStoryById(id);
+        // Precompiled snapshot with pages and questions - no SQL on a cache hit
+        StoryView story = storyViewService.getStoryView(id);
         model.addAttribute("story", story);
+        model.addAttribute("questionsByPage", story.getQuestionsByPage());
+        // Precomputed neighbours held in memory, no SQL
+        model.addAttribute("relatedStories", recommendationService.getRelatedStories(id));
 
-        // Add questions for each page to the model
-        Map<Long, List<Question>> questionsByPage = new HashMap<>();
-        for (StoryPage page : story.getPages()) {
-            List<Question> questions = questionService.getQuestionsByPageId(page.getId());
-            questionsByPage.put(page.getId(), questions);
-        }
-        model.addAttribute("questionsByPage", questionsByPage);
-
-        // Record interaction if user is logged in
-        User currentUser = (User) session.getAttribute("currentUser");
+        // Record the view if user is logged in - appended to the event log, no database write on this request
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
         if (currentUser != null) {
-            UserStoryInteraction interaction = userService.recordStoryInteraction(
-                    currentUser, id, 0, false);
-            model.addAttribute("interactionId", interaction.getId());
+            userService.recordStoryView(currentUser.getId(), id);
+            model.addAttribute("trackInteraction", true);
         }
 
         return "story/view";
     }
 
+    @SqlBudget(2)
     @GetMapping("/edit/{id}")
-    public String showEditForm(@PathVariable Long id, Model model, HttpSession session) {
-        // Get current user
-        User currentUser = (User) session.getAttribute("currentUser");
+    public String showEditForm(@PathVariable Long id, Model model, HttpServletRequest request) {
+        // Admin role was granted as an authority at login, no database check needed
+        model.addAttribute("isAdmin", request.isUserInRole("ADMIN"));
 
-        // Check if user is admin
-        boolean isAdmin = currentUser != null && userAdminService.isUserAdmin(currentUser.getEmail());
-        model.addAttribute("isAdmin", isAdmin);
-
-        Story story = storyService.getStoryById(id);
+        // Always edit the current state, never a cached snapshot
+        StoryView story = storyViewService.compileStoryView(id);
         model.addAttribute("story", story);
-
-        // Add questions for each page to the model
-        Map<Long, List<Question>> questionsByPage = new HashMap<>();
-        for (StoryPage page : story.getPages()) {
-            List<Question> questions = questionService.getQuestionsByPageId(page.getId());
-            questionsByPage.put(page.getId(), questions);
-        }
-        model.addAttribute("questionsByPage", questionsByPage);
+        model.addAttribute("questionsByPage", story.getQuestionsByPage());
 
         return "story/edit";
     }
@@ -165,7 +158,7 @@ public class StoryController {
         story.setId(id);
 
         // Set user information
-        User currentUser = (User) session.getAttribute("currentUser");
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
         if (currentUser != null) {
             story.setChangedBy(currentUser.getEmail());
         }
@@ -176,20 +169,61 @@ public class StoryController {
         return "redirect:/stories";
     }
 
-    @GetMapping("/delete/{id}")
-    public String deleteStory(@PathVariable Long id, RedirectAttributes redirectAttributes, HttpSession session) {
+    // Granular editor endpoints used by the autosave in forms.js: each touches one page or question
 
-        User currentUser = (User) session.getAttribute("currentUser");
-        if (currentUser == null) {
-            return "redirect:/login";
-        }
+    @SqlBudget(4)
+    @PatchMapping("/edit/{storyId}/pages/{pageId}")
+    @ResponseBody
+    public ResponseEntity<Void> patchPage(@PathVariable Long storyId, @PathVariable Long pageId,
+                                          @RequestBody PagePatchDTO patch, HttpSession session) {
+        storyService.updatePageText(storyId, pageId, patch.getText(), currentEmail(session));
+        return ResponseEntity.noContent().build();
+    }
 
-        // Check if user is admin
-        if (!userAdminService.isUserAdmin(currentUser.getEmail())) {
-            redirectAttributes.addFlashAttribute("error", "You don't have permission to delete stories.");
-            return "redirect:/stories";
-        }
+    @PatchMapping("/edit/{storyId}/pages/order")
+    @ResponseBody
+    public ResponseEntity<Void> reorderPages(@PathVariable Long storyId, @RequestBody List<Long> pageIds,
+                                             HttpSession session) {
+        storyService.reorderPages(storyId, pageIds, currentEmail(session));
+        return ResponseEntity.noContent().build();
+    }
 
+    @PostMapping("/edit/{storyId}/pages/{pageId}/image")
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> replacePageImage(@PathVariable Long storyId, @PathVariable Long pageId,
+                                                                @RequestParam("imageFile") MultipartFile imageFile,
+                                                                HttpSession session) {
+        String imagePath = storyService.replacePageImage(storyId, pageId, imageFile, currentEmail(session));
+        // The image URL is cached by browsers for days, so point the editor at a URL unique to this version
+        return ResponseEntity.ok(Map.of("imageUrl",
+                "/stories/image/" + pageId + "?v=" + Integer.toHexString(imagePath.hashCode())));
+    }
+
+    @SqlBudget(6)
+    @PutMapping("/edit/{storyId}/pages/{pageId}/questions")
+    @ResponseBody
+    public ResponseEntity<Question> upsertQuestion(@PathVariable Long storyId, @PathVariable Long pageId,
+                                                   @RequestBody Question question, HttpSession session) {
+        return ResponseEntity.ok(storyService.upsertQuestion(storyId, pageId, question, currentEmail(session)));
+    }
+
+    @DeleteMapping("/edit/{storyId}/pages/{pageId}/questions/{questionId}")
+    @ResponseBody
+    public ResponseEntity<Void> deleteQuestion(@PathVariable Long storyId, @PathVariable Long pageId,
+                                               @PathVariable Long questionId, HttpSession session) {
+        storyService.deleteQuestion(storyId, pageId, questionId, currentEmail(session));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static String currentEmail(HttpSession session) {
+        SessionUser currentUser = (SessionUser) session.getAttribute("currentUser");
+        return currentUser != null ? currentUser.getEmail() : null;
+    }
+
+    @GetMapping("/delete/{id}")
+    public String deleteStory(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+
+        // Admin access is enforced by SecurityConfig
         storyService.deleteStory(id);
         redirectAttributes.addFlashAttribute("message", "Story deleted successfully!");
         return "redirect:/stories";
@@ -203,10 +237,16 @@ public class StoryController {
         return ResponseEntity.ok(questions);
     }
 
+    @GetMapping("/api/trending")
+    @ResponseBody
+    public ResponseEntity<List<TrendingStory>> getTrendingStories() {
+        return ResponseEntity.ok(trendingService.getTrending());
+    }
+
     @GetMapping("/api/stories/{storyId}/questions")
     @ResponseBody
-    public ResponseEntity<List<Question>> getQuestionsForStory(@PathVariable Long storyId) {
-        List<Question> questions = questionService.getQuestionsByStoryId(storyId);
+    public ResponseEntity<List<StoryView.QuestionView>> getQuestionsForStory(@PathVariable Long storyId) {
+        List<StoryView.QuestionView> questions = storyViewService.getStoryView(storyId).getAllQuestions();
         return ResponseEntity.ok(questions);
     }
 
@@ -264,7 +304,7 @@ public class StoryController {
     @GetMapping("/cover/{id}")
     @ResponseBody
     public ResponseEntity<byte[]> getCoverImage(@PathVariable Long id) {
-        Story story = storyService.getStoryById(id);
+        StoryView story = storyViewService.getStoryView(id);
 
         // MinIO only - no fallbacks
         if (story.getCoverImagePath() != null && !story.getCoverImagePath().trim().isEmpty()) {
@@ -0,0 +1,56 @@
+package com.socialstory.model;
+
+import lombok.Value;
+
+/**
+ * One reader event as stored in the append-only interaction event log.
+ * The meaning of value depends on the type: seconds for TIME, 1/0 for a correct/incorrect ANSWER,
+ * 1/0 for the new FAVORITE state, the page reached for VIEW and unused for COMPLETE and LOGIN.
+ */
+@Value
+public class InteractionEvent {
+
+    public enum Type {
+        VIEW(1), TIME(2), ANSWER(3), COMPLETE(4), FAVORITE(5), LOGIN(6);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        public static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown interaction event type: " + code);
+        }
+    }
+
+    // Position in the log, assigned when the event is appended (-1 before)
+    long sequence;
+    Type type;
+    long timestamp;
+    long userId;
+    long storyId;
+    long interactionId;
+    long value;
+
+    public static InteractionEvent of(Type type, long userId, long storyId, long interactionId, long value) {
+        return new InteractionEvent(-1, type, System.currentTimeMillis(), userId, storyId, interactionId, value);
+    }
+
+    public static InteractionEvent forInteraction(Type type, long interactionId, long value) {
+        return of(type, 0, 0, interactionId, value);
+    }
+
+    public InteractionEvent withSequence(long sequence) {
+        return new InteractionEvent(sequence, type, timestamp, userId, storyId, interactionId, value);
+    }
+}
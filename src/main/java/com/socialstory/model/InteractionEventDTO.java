@@ -0,0 +1,29 @@
+package com.socialstory.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One reader event in a batch posted by story.js: time spent, a question answer, completion or favorite
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionEventDTO {
+
+    public enum Type {
+        TIME, ANSWER, COMPLETE, FAVORITE
+    }
+
+    private Type type;
+
+    // TIME: seconds read since the previous TIME event
+    private Long seconds;
+
+    // ANSWER: whether the answer was correct
+    private Boolean correct;
+
+    // FAVORITE: the new favorite state (set, not toggled, so a replayed batch stays idempotent)
+    private Boolean favorite;
+}
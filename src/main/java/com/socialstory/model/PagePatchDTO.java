@@ -0,0 +1,11 @@
+package com.socialstory.model;
+
+import lombok.Data;
+
+/**
+ * Body of a single-page edit from the editor's autosave
+ */
+@Data
+public class PagePatchDTO {
+    private String text;
+}
@@ -0,0 +1,14 @@
+package com.socialstory.model;
+
+import lombok.Value;
+
+/**
+ * A "readers also read" neighbour of a story with its co-reading cosine similarity
+ */
+@Value
+public class RelatedStory {
+    Long id;
+    String title;
+    boolean hasCoverImage;
+    float similarity;
+}
@@ -0,0 +1,27 @@
+package com.socialstory.model;
+
+import lombok.Value;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Slim, serializable view of the logged-in user kept in the HTTP session.
+ * Sessions live in a shared store, so they must not carry JPA entities or their collections.
+ */
+@Value
+public class SessionUser implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    Long id;
+    String email;
+    String firstName;
+    String lastName;
+    boolean admin;
+
+    public static SessionUser from(User user, boolean admin) {
+        return new SessionUser(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), admin);
+    }
+}
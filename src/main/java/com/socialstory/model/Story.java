@@ -3,6 +3,8 @@ package com.socialstory.model;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,6 +18,8 @@ import java.util.List;
         @Index(name = "idx_story_created_at", columnList = "createdAt")
 })
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -44,6 +48,7 @@ public class Story {
     // Update the pages relationship with cascade delete
     @OneToMany(mappedBy = "story", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("pageOrder")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-pages")
     @JsonManagedReference
     private List<StoryPage> pages = new ArrayList<>();
 
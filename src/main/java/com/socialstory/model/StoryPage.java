@@ -6,17 +6,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "story_pages")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-page")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StoryPage {
+    // Pooled table ids instead of IDENTITY, so pages and questions of a story are inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "story_page_ids")
+    @TableGenerator(name = "story_page_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "story_pages", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TEXT")
@@ -34,7 +43,10 @@ public class StoryPage {
     private Story story;
 
     // Add relationship to questions
+    // Batch-fetched, so walking the questions of every page while editing a story costs one query, not one per page
     @OneToMany(mappedBy = "page", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story-page-questions")
     @JsonManagedReference
     private List<Question> questions = new ArrayList<>();
 
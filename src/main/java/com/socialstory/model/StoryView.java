@@ -0,0 +1,102 @@
+package com.socialstory.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Immutable, precompiled read model of a story for the reader page.
+ * Holds everything story/view.html needs so a cached snapshot can be rendered without touching the database.
+ */
+@Value
+@Builder
+public class StoryView {
+    Long id;
+    String title;
+    String tags;
+    String coverImagePath;
+    Story.StoryStatus status;
+
+    // Last modification time of the story this snapshot was compiled from
+    LocalDateTime version;
+
+    List<PageView> pages;
+    Map<Long, List<QuestionView>> questionsByPage;
+
+    public boolean hasCoverImage() {
+        return coverImagePath != null && !coverImagePath.trim().isEmpty();
+    }
+
+    /**
+     * All questions of the story in page order
+     */
+    public List<QuestionView> getAllQuestions() {
+        List<QuestionView> all = new ArrayList<>();
+        for (PageView page : pages) {
+            all.addAll(page.getQuestions());
+        }
+        return all;
+    }
+
+    /**
+     * Compile a snapshot from a story (with pages loaded) and all questions of that story
+     */
+    public static StoryView from(Story story, List<Question> questions) {
+        Map<Long, List<QuestionView>> grouped = new HashMap<>();
+        for (Question question : questions) {
+            if (question.getPage() != null) {
+                grouped.computeIfAbsent(question.getPage().getId(), k -> new ArrayList<>())
+                        .add(QuestionView.from(question));
+            }
+        }
+        grouped.values().forEach(pageQuestions -> pageQuestions.sort(Comparator.comparing(QuestionView::getId)));
+
+        List<PageView> pages = new ArrayList<>();
+        Map<Long, List<QuestionView>> questionsByPage = new LinkedHashMap<>();
+        for (StoryPage page : story.getPages()) {
+            List<QuestionView> pageQuestions = List.copyOf(grouped.getOrDefault(page.getId(), List.of()));
+            pages.add(new PageView(page.getId(), page.getText(), page.getImagePath(), page.getPageOrder(), pageQuestions));
+            questionsByPage.put(page.getId(), pageQuestions);
+        }
+
+        return StoryView.builder()
+                .id(story.getId())
+                .title(story.getTitle())
+                .tags(story.getTags())
+                .coverImagePath(story.getCoverImagePath())
+                .status(story.getStatus())
+                .version(story.getUpdatedAt())
+                .pages(List.copyOf(pages))
+                .questionsByPage(Collections.unmodifiableMap(questionsByPage))
+                .build();
+    }
+
+    @Value
+    public static class PageView {
+        Long id;
+        String text;
+        String imagePath;
+        Integer pageOrder;
+        List<QuestionView> questions;
+
+        public boolean hasImage() {
+            return imagePath != null && !imagePath.trim().isEmpty();
+        }
+    }
+
+    @Value
+    public static class QuestionView {
+        Long id;
+        String text;
+        String option1;
+        String option2;
+        Integer correctOptionIndex;
+
+        static QuestionView from(Question question) {
+            return new QuestionView(question.getId(), question.getText(), question.getOption1(),
+                    question.getOption2(), question.getCorrectOptionIndex());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.socialstory.model;
+
+import lombok.Value;
+
+/**
+ * A story on the "Trending now" shelf with its decayed engagement score
+ */
+@Value
+public class TrendingStory {
+    Long id;
+    String title;
+    boolean hasCoverImage;
+    double score;
+}
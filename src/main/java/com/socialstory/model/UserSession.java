@@ -25,6 +25,11 @@ public class UserSession {
 
     private LocalDateTime logoutTime;
 
+    // SHA-256 of the HTTP session id, so the row can be closed without knowing its generated id
+    private String sessionKey;
+
+    private LocalDateTime lastSeenAt;
+
     private String ipAddress;
 
     private String userAgent;
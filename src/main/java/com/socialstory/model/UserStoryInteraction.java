@@ -9,7 +9,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_story_interactions")
+@Table(name = "user_story_interactions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_story_interactions_user_story", columnNames = {"user_id", "story_id"}))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 public class UserStoryInteraction {
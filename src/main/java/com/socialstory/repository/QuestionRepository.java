@@ -15,7 +15,8 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     // Find all questions for a specific page
     List<Question> findByPageId(Long pageId);
 
-    // Find all questions for a specific story
+    // Find all questions for a specific story, unordered: sorting across the join would need a filesort,
+    // and StoryView orders them by page and id in memory
     @Query("SELECT q FROM Question q JOIN q.page p WHERE p.story.id = :storyId")
     List<Question> findByStoryId(@Param("storyId") Long storyId);
 }
\ No newline at end of file
@@ -4,16 +4,22 @@ import com.socialstory.model.Story;
 import com.socialstory.model.StoryListDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StoryRepository extends JpaRepository<Story, Long> {
 
+    // Load a story together with its pages in a single query
+    @EntityGraph(attributePaths = "pages")
+    Optional<Story> findWithPagesById(Long id);
+
     Page<Story> findByTagsContaining(String tag, Pageable pageable);
 
     Page<Story> findByTitleContainingIgnoreCase(String titleKeyword, Pageable pageable);
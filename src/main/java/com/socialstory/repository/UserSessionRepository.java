@@ -5,6 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,14 +15,38 @@ import java.util.List;
 public interface UserSessionRepository extends JpaRepository<UserSession, Long> {
     List<UserSession> findByUserId(Long userId);
 
+    // Raw rows only exist inside the retention window; older days are summarized in user_daily_sessions
     @Query("SELECT us FROM UserSession us WHERE us.loginTime >= ?1")
     List<UserSession> findSessionsSince(LocalDateTime since);
 
-    @Query("SELECT AVG(us.sessionDuration) FROM UserSession us WHERE us.user.id = ?1")
-    Double getAverageSessionDurationForUser(Long userId);
+    @Query(value = "SELECT MAX(day) FROM user_daily_sessions", nativeQuery = true)
+    Date findLastArchivedDay();
 
-    @Query("SELECT COUNT(us) FROM UserSession us WHERE DATE(us.loginTime) = CURRENT_DATE")
-    Long countTodaySessions();
+    @Query(value = "SELECT (a.seconds + h.seconds) / NULLIF(a.ended + h.ended, 0) FROM " +
+            "(SELECT COALESCE(SUM(session_seconds), 0) AS seconds, COALESCE(SUM(ended_sessions), 0) AS ended " +
+            "FROM user_daily_sessions WHERE user_id = ?1) a, " +
+            "(SELECT COALESCE(SUM(session_duration), 0) AS seconds, COUNT(session_duration) AS ended " +
+            "FROM user_sessions WHERE user_id = ?1 AND login_time >= ?2) h", nativeQuery = true)
+    Double getAverageSessionDuration(Long userId, Timestamp firstHotLogin);
+
+    /**
+     * Average over the user's whole history: archived days from their summaries, later days from the hot rows.
+     * A day being purged is read from its summary only, so no session is counted twice.
+     */
+    default Double getAverageSessionDurationForUser(Long userId) {
+        Date lastArchived = findLastArchivedDay();
+        LocalDate firstHotDay = lastArchived != null ? lastArchived.toLocalDate().plusDays(1) : LocalDate.EPOCH;
+        return getAverageSessionDuration(userId, Timestamp.valueOf(firstHotDay.atStartOfDay()));
+    }
+
+    @Query("SELECT COUNT(us) FROM UserSession us WHERE us.loginTime >= ?1 AND us.loginTime < ?2")
+    Long countSessionsInRange(LocalDateTime start, LocalDateTime end);
+
+    // Range on loginTime instead of DATE(loginTime), so the login_time index can be used
+    default Long countTodaySessions() {
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        return countSessionsInRange(startOfDay, startOfDay.plusDays(1));
+    }
 
     @Query("SELECT COUNT(DISTINCT us.user.id) FROM UserSession us WHERE us.loginTime >= ?1 AND us.loginTime <= ?2")
     Long countSessionsBetween(LocalDateTime start, LocalDateTime end);
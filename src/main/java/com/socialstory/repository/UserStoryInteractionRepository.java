@@ -3,12 +3,16 @@ package com.socialstory.repository;
 import com.socialstory.model.UserStoryInteraction;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserStoryInteractionRepository extends JpaRepository<UserStoryInteraction, Long> {
@@ -16,8 +20,6 @@ public interface UserStoryInteractionRepository extends JpaRepository<UserStoryI
 
     List<UserStoryInteraction> findByUserId(Long userId);
 
-    List<UserStoryInteraction> findByStoryId(Long storyId);
-
     @Query("SELECT usi.story.id FROM UserStoryInteraction usi GROUP BY usi.story.id ORDER BY COUNT(usi) DESC")
     List<Long> findMostReadStories();
 
@@ -30,9 +32,23 @@ public interface UserStoryInteractionRepository extends JpaRepository<UserStoryI
     @Query("SELECT COUNT(DISTINCT usi.user.id) FROM UserStoryInteraction usi WHERE usi.story.id = ?1")
     Long countUniqueReadersForStory(Long storyId);
 
+    // Fetch user and story with the interactions so the activity feed doesn't load them row by row
+    @EntityGraph(attributePaths = {"user", "story"})
     @Query("SELECT usi FROM UserStoryInteraction usi ORDER BY usi.lastReadAt DESC")
     List<UserStoryInteraction> findRecentInteractions(Pageable pageable);
 
+    @Query("SELECT s.id FROM Story s WHERE NOT EXISTS " +
+            "(SELECT 1 FROM UserStoryInteraction usi WHERE usi.story = s AND usi.user.id = ?1)")
+    Set<Long> findUnreadStoryIds(Long userId);
+
+    @Modifying
+    @Query("UPDATE UserStoryInteraction usi SET usi.favorite = CASE WHEN usi.favorite = true THEN false ELSE true END " +
+            "WHERE usi.id = :id")
+    int toggleFavorite(@Param("id") Long id);
+
+    @Query("SELECT usi.favorite FROM UserStoryInteraction usi WHERE usi.id = ?1")
+    Optional<Boolean> findFavoriteById(Long id);
+
     default List<UserStoryInteraction> findRecentInteractions(int limit) {
         return findRecentInteractions(PageRequest.of(0, limit));
     }
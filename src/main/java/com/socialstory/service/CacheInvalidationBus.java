@@ -0,0 +1,344 @@
+package com.socialstory.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker-less invalidation bus keeping node-local caches consistent across application nodes.
+ * Local evictions are queued and written to the cache_invalidations table; every node polls that table
+ * and applies the evictions of the other nodes to its own Spring caches and Hibernate second-level cache.
+ * A change is visible everywhere within two poll intervals (one to publish, one to be picked up).
+ * Nodes read the table by its auto-increment id, so no node's clock decides what another node sees.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+
+    /** Prefix of cache names standing for Hibernate second-level cache entity regions */
+    public static final String HIBERNATE_PREFIX = "hibernate:";
+
+    private static final char KEY_LONG = 'L';
+    private static final char KEY_STRING = 'S';
+    private static final int POLL_LIMIT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final String nodeId;
+    private final long lookbackMillis;
+    private final long retentionMinutes;
+
+    private final ConcurrentLinkedQueue<Invalidation> outbox = new ConcurrentLinkedQueue<>();
+    // Ids the cursor passed without seeing a row, with when they were first missed. Ids are assigned at insert time
+    // but transactions can commit out of id order, so a missing id is looked up again until the lookback has passed.
+    private final Map<Long, Long> missingIds = new ConcurrentHashMap<>();
+    private volatile CacheManager localCacheManager;
+    private volatile long cursor = -1;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong publishFailures = new AtomicLong();
+    private final AtomicLong pollFailures = new AtomicLong();
+    private final AtomicLong lastDelayMillis = new AtomicLong();
+    private final AtomicLong maxDelayMillis = new AtomicLong();
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                @Value("${app.cache.bus.node-id:}") String nodeId,
+                                @Value("${app.cache.bus.lookback-ms:5000}") long lookbackMillis,
+                                @Value("${app.cache.bus.retention-minutes:60}") long retentionMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.lookbackMillis = lookbackMillis;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    /**
+     * Register the cache manager remote evictions are applied to (the undecorated, node-local one)
+     */
+    public void setLocalCacheManager(CacheManager localCacheManager) {
+        this.localCacheManager = localCacheManager;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Broadcast the eviction of one key, or of the whole cache when key is null.
+     * The row is written by the next flush, never inside the caller's transaction.
+     */
+    public void publish(String cacheName, Object key) {
+        outbox.add(new Invalidation(cacheName, key));
+    }
+
+    /**
+     * Start broadcasting second-level cache changes once Hibernate is fully up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerHibernateListeners() {
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        if (emf == null) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        SecondLevelCacheListener listener = new SecondLevelCacheListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        log.info("Cache invalidation bus started on node {}", nodeId);
+    }
+
+    /**
+     * Write queued local evictions, then apply the evictions other nodes wrote since the last poll
+     */
+    @Scheduled(fixedDelayString = "${app.cache.bus.poll-interval-ms:2000}")
+    public void poll() {
+        flushOutbox();
+        try {
+            applyRemoteInvalidations();
+        } catch (Exception e) {
+            pollFailures.incrementAndGet();
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.bus.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        try {
+            int purged = jdbcTemplate.update(
+                    "DELETE FROM cache_invalidations WHERE created_at < CURRENT_TIMESTAMP(3) - INTERVAL ? MINUTE",
+                    retentionMinutes);
+            if (purged > 0) {
+                log.debug("Purged {} expired cache invalidations", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Purging cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushOutbox();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("published", published.get());
+        stats.put("received", received.get());
+        stats.put("pending", outbox.size());
+        stats.put("publishFailures", publishFailures.get());
+        stats.put("pollFailures", pollFailures.get());
+        stats.put("lastPropagationDelayMs", lastDelayMillis.get());
+        stats.put("maxPropagationDelayMs", maxDelayMillis.get());
+        return stats;
+    }
+
+    private void flushOutbox() {
+        List<Invalidation> batch = new ArrayList<>();
+        Invalidation invalidation;
+        while ((invalidation = outbox.poll()) != null) {
+            batch.add(invalidation);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO cache_invalidations (cache_name, cache_key, key_type, origin_node, queued_at) VALUES (?, ?, ?, ?, ?)",
+                    batch, batch.size(), (ps, item) -> {
+                        ps.setString(1, item.cacheName());
+                        ps.setString(2, item.key() != null ? item.key().toString() : null);
+                        ps.setString(3, item.key() == null ? null
+                                : String.valueOf(item.key() instanceof Long ? KEY_LONG : KEY_STRING));
+                        ps.setString(4, nodeId);
+                        ps.setTimestamp(5, Timestamp.from(item.queuedAt()));
+                    });
+            published.addAndGet(batch.size());
+        } catch (Exception e) {
+            publishFailures.incrementAndGet();
+            outbox.addAll(batch);
+            log.warn("Publishing {} cache invalidations failed, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void applyRemoteInvalidations() {
+        if (cursor < 0) {
+            cursor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations", Long.class);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (!missingIds.isEmpty()) {
+            List<Object> ids = new ArrayList<>(missingIds.keySet());
+            List<Map<String, Object>> lateRows = jdbcTemplate.queryForList(
+                    "SELECT id, cache_name, cache_key, key_type, origin_node, queued_at FROM cache_invalidations " +
+                            "WHERE id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+                    ids.toArray());
+            for (Map<String, Object> row : lateRows) {
+                missingIds.remove(((Number) row.get("id")).longValue());
+                applyRow(row, now);
+            }
+        }
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, cache_name, cache_key, key_type, origin_node, queued_at FROM cache_invalidations " +
+                        "WHERE id > ? ORDER BY id LIMIT " + POLL_LIMIT,
+                cursor);
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            for (long missing = cursor + 1; missing < id && missingIds.size() < POLL_LIMIT; missing++) {
+                missingIds.putIfAbsent(missing, now);
+            }
+            cursor = id;
+            applyRow(row, now);
+        }
+
+        // Rolled back inserts leave permanent holes; stop waiting for them after the lookback
+        long horizon = now - lookbackMillis;
+        for (Iterator<Long> it = missingIds.values().iterator(); it.hasNext(); ) {
+            if (it.next() < horizon) {
+                it.remove();
+            }
+        }
+    }
+
+    private void applyRow(Map<String, Object> row, long now) {
+        // This node's own rows only move the cursor; their evictions were applied locally when published
+        if (nodeId.equals(row.get("origin_node"))) {
+            return;
+        }
+
+        String keyType = (String) row.get("key_type");
+        String rawKey = (String) row.get("cache_key");
+        Object key = rawKey == null ? null
+                : keyType != null && keyType.charAt(0) == KEY_LONG ? Long.valueOf(rawKey) : rawKey;
+        apply((String) row.get("cache_name"), key);
+
+        received.incrementAndGet();
+        // Propagation delay across two nodes' clocks: a metric only, never used to decide what to read
+        Timestamp queuedAt = (Timestamp) row.get("queued_at");
+        if (queuedAt != null) {
+            long delay = Math.max(0, now - queuedAt.getTime());
+            lastDelayMillis.set(delay);
+            maxDelayMillis.accumulateAndGet(delay, Math::max);
+        }
+    }
+
+    private void apply(String cacheName, Object key) {
+        if (cacheName.startsWith(HIBERNATE_PREFIX)) {
+            EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+            if (emf != null) {
+                org.hibernate.Cache cache = emf.unwrap(SessionFactory.class).getCache();
+                String entityName = cacheName.substring(HIBERNATE_PREFIX.length());
+                if (key != null) {
+                    cache.evictEntityData(entityName, key);
+                } else {
+                    cache.evictEntityData(entityName);
+                }
+                // Collection membership may have changed with the entity; collections are small and rarely written
+                cache.evictCollectionData();
+            }
+            return;
+        }
+
+        CacheManager cacheManager = localCacheManager;
+        Cache cache = cacheManager != null ? cacheManager.getCache(cacheName) : null;
+        if (cache == null) {
+            return;
+        }
+        if (key != null) {
+            cache.evict(key);
+        } else {
+            cache.clear();
+        }
+        log.debug("Applied remote invalidation {}:{}", cacheName, key);
+    }
+
+    private record Invalidation(String cacheName, Object key, Instant queuedAt) {
+        Invalidation(String cacheName, Object key) {
+            this(cacheName, key, Instant.now());
+        }
+    }
+
+    /**
+     * Publishes committed inserts, updates and deletes of second-level cached entities
+     */
+    private class SecondLevelCacheListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            publishEntity(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            publishEntity(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            publishEntity(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.canWriteToCache();
+        }
+
+        private void publishEntity(EntityPersister persister, Object id) {
+            if (persister.canWriteToCache() && id instanceof Long) {
+                publish(HIBERNATE_PREFIX + persister.getEntityName(), id);
+            }
+        }
+    }
+}
@@ -3,14 +3,27 @@ package com.socialstory.service;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Map;
 
-public class CustomOAuth2User implements org.springframework.security.oauth2.core.user.OAuth2User {
+// Serializable because the security context is stored in the shared session store
+public class CustomOAuth2User implements org.springframework.security.oauth2.core.user.OAuth2User, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private OAuth2User oauth2User;
+    private Collection<? extends GrantedAuthority> authorities;
 
     public CustomOAuth2User(OAuth2User oauth2User) {
+        this(oauth2User, oauth2User.getAuthorities());
+    }
+
+    public CustomOAuth2User(OAuth2User oauth2User, Collection<? extends GrantedAuthority> authorities) {
         this.oauth2User = oauth2User;
+        this.authorities = authorities;
     }
 
     @Override
@@ -20,7 +33,7 @@ public class CustomOAuth2User implements org.springframework.security.oauth2.cor
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return oauth2User.getAuthorities();
+        return authorities; // Provider authorities plus the roles resolved at login
     }
 
     @Override
@@ -39,4 +52,4 @@ public class CustomOAuth2User implements org.springframework.security.oauth2.cor
     public String getFamilyName() {
         return oauth2User.getAttribute("family_name"); // Gets the last name
     }
-}
\ No newline at end of file
+}
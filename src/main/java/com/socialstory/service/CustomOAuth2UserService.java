@@ -1,24 +1,36 @@
 package com.socialstory.service;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 // Custom OAuth2 user service
 @Service
+@RequiredArgsConstructor
 public class CustomOAuth2UserService extends DefaultOAuth2UserService {
+
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final UserAdminService userAdminService;
+
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
         OAuth2User user = super.loadUser(userRequest);
-        return new CustomOAuth2User(user);
+
+        // Resolve the admin role once at login so requests can be authorized from the granted authorities
+        List<GrantedAuthority> authorities = new ArrayList<>(user.getAuthorities());
+        String email = user.getAttribute("email");
+        if (email != null && userAdminService.isUserAdmin(email)) {
+            authorities.add(new SimpleGrantedAuthority(ROLE_ADMIN));
+        }
+        return new CustomOAuth2User(user, authorities);
     }
 }
-
-
-
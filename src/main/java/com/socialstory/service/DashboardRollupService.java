@@ -0,0 +1,229 @@
+package com.socialstory.service;
+
+import com.socialstory.model.InteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the admin dashboard rollups and assembles the dashboard from them.
+ * Story and hourly rollups are incremented from the interaction event log; the daily session rollup is
+ * recomputed for today and yesterday from indexed login_time ranges. User and story totals are counters in
+ * dashboard_totals, adjusted by the services that create and delete them. The dashboard itself is a handful of
+ * small indexed reads whose cost does not grow with the history.
+ */
+@Slf4j
+@Service
+public class DashboardRollupService extends EventLogConsumer {
+
+    public static final String TOTAL_USERS = "users";
+    public static final String TOTAL_STORIES = "stories";
+
+    private static final int TOP_STORIES = 5;
+    private static final int ACTIVITY_DAYS = 7;
+
+    private static final String STORY_DAILY_SQL = "INSERT INTO story_daily_stats " +
+            "(story_id, day, views, completions, favorites, time_spent) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE views = views + VALUES(views), completions = completions + VALUES(completions), " +
+            "favorites = favorites + VALUES(favorites), time_spent = time_spent + VALUES(time_spent)";
+
+    private static final String HOURLY_SQL = "INSERT INTO hourly_activity_stats " +
+            "(hour, views, completions, answers, time_spent) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE views = views + VALUES(views), completions = completions + VALUES(completions), " +
+            "answers = answers + VALUES(answers), time_spent = time_spent + VALUES(time_spent)";
+
+    private static final String DAILY_SESSIONS_SQL = "INSERT INTO daily_activity_stats " +
+            "(day, active_users, sessions, ended_sessions, session_seconds) " +
+            "SELECT ?, COUNT(DISTINCT user_id), COUNT(*), COUNT(session_duration), COALESCE(SUM(session_duration), 0) " +
+            "FROM user_sessions WHERE login_time >= ? AND login_time < ? " +
+            "ON DUPLICATE KEY UPDATE active_users = VALUES(active_users), sessions = VALUES(sessions), " +
+            "ended_sessions = VALUES(ended_sessions), session_seconds = VALUES(session_seconds)";
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int topStoriesWindowDays;
+    private final int backfillDays;
+    private volatile boolean backfilled;
+
+    public DashboardRollupService(InteractionEventLog eventLog, JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.dashboard.top-stories-window-days:30}") int topStoriesWindowDays,
+                                  @Value("${app.dashboard.backfill-days:30}") int backfillDays) {
+        super("rollups", eventLog, jdbcTemplate, transactionTemplate);
+        this.topStoriesWindowDays = topStoriesWindowDays;
+        this.backfillDays = backfillDays;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.dashboard.event-rollup-interval-ms:10000}")
+    public void applyPending() {
+        super.applyPending();
+    }
+
+    @Override
+    protected void applyBatch(List<InteractionEvent> events) {
+        Map<StoryDay, long[]> storyDays = new LinkedHashMap<>();
+        Map<LocalDateTime, long[]> hours = new LinkedHashMap<>();
+
+        for (InteractionEvent event : events) {
+            LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), zone);
+            // views, completions, answers, time spent
+            long[] hour = hours.computeIfAbsent(at.truncatedTo(ChronoUnit.HOURS), key -> new long[4]);
+            // views, completions, favorites, time spent; legacy id-keyed events carry no story and only count site-wide
+            long[] story = event.getStoryId() > 0
+                    ? storyDays.computeIfAbsent(new StoryDay(event.getStoryId(), at.toLocalDate()), key -> new long[4])
+                    : new long[4];
+
+            switch (event.getType()) {
+                case VIEW -> {
+                    hour[0]++;
+                    story[0]++;
+                }
+                case COMPLETE -> {
+                    hour[1]++;
+                    story[1]++;
+                }
+                case ANSWER -> hour[2]++;
+                case TIME -> {
+                    hour[3] += event.getValue();
+                    story[3] += event.getValue();
+                }
+                case FAVORITE -> story[2] += event.getValue() != 0 ? 1 : 0;
+            }
+        }
+
+        if (!storyDays.isEmpty()) {
+            List<Map.Entry<StoryDay, long[]>> rows = new ArrayList<>(storyDays.entrySet());
+            jdbcTemplate.batchUpdate(STORY_DAILY_SQL, rows, rows.size(), (ps, row) -> {
+                long[] counts = row.getValue();
+                ps.setLong(1, row.getKey().storyId());
+                ps.setDate(2, Date.valueOf(row.getKey().day()));
+                ps.setLong(3, counts[0]);
+                ps.setLong(4, counts[1]);
+                ps.setLong(5, counts[2]);
+                ps.setLong(6, counts[3]);
+            });
+        }
+        if (!hours.isEmpty()) {
+            List<Map.Entry<LocalDateTime, long[]>> rows = new ArrayList<>(hours.entrySet());
+            jdbcTemplate.batchUpdate(HOURLY_SQL, rows, rows.size(), (ps, row) -> {
+                long[] counts = row.getValue();
+                ps.setTimestamp(1, Timestamp.valueOf(row.getKey()));
+                ps.setLong(2, counts[0]);
+                ps.setLong(3, counts[1]);
+                ps.setLong(4, counts[2]);
+                ps.setLong(5, counts[3]);
+            });
+        }
+    }
+
+    /**
+     * Recompute the session rollup of today and yesterday (late logouts), backfilling recent days on the first run
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.session-rollup-interval-ms:300000}")
+    public void refreshSessionRollups() {
+        try {
+            LocalDate today = LocalDate.now(zone);
+            int days = backfilled ? 2 : backfillDays;
+            for (int i = days - 1; i >= 0; i--) {
+                refreshSessionRollup(today.minusDays(i));
+            }
+            backfilled = true;
+        } catch (Exception e) {
+            log.warn("Refreshing session rollups failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The zone that days of the rollups (and of retention, which writes them for archived days) are counted in
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public void refreshSessionRollup(LocalDate day) {
+        jdbcTemplate.update(DAILY_SESSIONS_SQL, Date.valueOf(day),
+                Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Add to one of the dashboard_totals counters, in the caller's transaction when there is one
+     */
+    public void adjustTotal(String name, long delta) {
+        if (delta != 0) {
+            jdbcTemplate.update("UPDATE dashboard_totals SET total = total + ? WHERE name = ?", delta, name);
+        }
+    }
+
+    /**
+     * Dashboard metrics assembled from the rollups and the totals counters
+     */
+    public Map<String, Object> getDashboardMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        LocalDate today = LocalDate.now(zone);
+
+        Map<String, Long> totals = new HashMap<>();
+        jdbcTemplate.query("SELECT name, total FROM dashboard_totals", rs -> {
+            totals.put(rs.getString("name"), rs.getLong("total"));
+        });
+        metrics.put("totalUsers", totals.getOrDefault(TOTAL_USERS, 0L));
+        metrics.put("totalStories", totals.getOrDefault(TOTAL_STORIES, 0L));
+
+        // Last 7 days of activity plus the all-time average session duration, both from the daily rollup
+        Map<LocalDate, Long> activeByDay = new HashMap<>();
+        jdbcTemplate.query("SELECT day, active_users FROM daily_activity_stats WHERE day >= ?",
+                rs -> {
+                    activeByDay.put(rs.getDate("day").toLocalDate(), rs.getLong("active_users"));
+                }, Date.valueOf(today.minusDays(ACTIVITY_DAYS - 1)));
+        Double avgSessionDuration = jdbcTemplate.queryForObject(
+                "SELECT SUM(session_seconds) / NULLIF(SUM(ended_sessions), 0) FROM daily_activity_stats", Double.class);
+
+        metrics.put("activeTodayUsers", activeByDay.getOrDefault(today, 0L));
+        metrics.put("avgSessionDuration", avgSessionDuration != null ? avgSessionDuration : 0.0);
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+        List<Map<String, Object>> activityData = new ArrayList<>();
+        for (int i = ACTIVITY_DAYS - 1; i >= 0; i--) {
+            LocalDate date = today.minusDays(i);
+            Map<String, Object> dayData = new HashMap<>();
+            dayData.put("date", date.format(formatter));
+            dayData.put("activeUsers", activeByDay.getOrDefault(date, 0L));
+            activityData.add(dayData);
+        }
+        metrics.put("activityData", activityData);
+
+        // Top-K in SQL over the recent window of the story rollup
+        List<Map<String, Object>> storyData = jdbcTemplate.query(
+                "SELECT s.title, t.views FROM (SELECT story_id, SUM(views) AS views FROM story_daily_stats " +
+                        "WHERE day >= ? GROUP BY story_id ORDER BY views DESC LIMIT ?) t " +
+                        "JOIN stories s ON s.id = t.story_id ORDER BY t.views DESC",
+                (rs, rowNum) -> {
+                    Map<String, Object> storyMap = new HashMap<>();
+                    storyMap.put("title", rs.getString("title"));
+                    storyMap.put("readCount", rs.getLong("views"));
+                    return storyMap;
+                }, Date.valueOf(today.minusDays(topStoriesWindowDays - 1)), TOP_STORIES);
+        metrics.put("storyData", storyData);
+
+        return metrics;
+    }
+
+    private record StoryDay(long storyId, LocalDate day) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.socialstory.service;
+
+import com.socialstory.model.InteractionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base for consumers tailing the interaction event log into the database.
+ * Every batch is applied in one transaction together with the consumer's checkpoint row, so after a crash
+ * or a database outage the consumer resumes exactly where its last committed batch ended.
+ */
+@Slf4j
+public abstract class EventLogConsumer {
+
+    private static final int BATCH_SIZE = 1000;
+
+    protected final InteractionEventLog eventLog;
+    protected final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String name;
+
+    private InteractionEventLog.Reader reader;
+    private long appliedSequence = -1;
+
+    protected EventLogConsumer(String name, InteractionEventLog eventLog, JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate) {
+        this.name = name;
+        this.eventLog = eventLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Apply one batch of events; runs inside the transaction that also advances the checkpoint
+     */
+    protected abstract void applyBatch(List<InteractionEvent> events);
+
+    /**
+     * Apply everything appended since the last run. On failure the reader rewinds to the checkpoint and retries next run.
+     */
+    public synchronized void applyPending() {
+        try {
+            if (reader == null) {
+                appliedSequence = loadCheckpoint();
+                reader = eventLog.openReader(appliedSequence);
+            }
+
+            List<InteractionEvent> events;
+            while (!(events = reader.poll(BATCH_SIZE)).isEmpty()) {
+                long next = reader.getNextSequence();
+                List<InteractionEvent> batch = events;
+                transactionTemplate.executeWithoutResult(status -> {
+                    applyBatch(batch);
+                    saveCheckpoint(next);
+                });
+                appliedSequence = next;
+            }
+        } catch (Exception e) {
+            log.warn("Consumer {} failed at sequence {}, will retry: {}", consumerName(), appliedSequence, e.getMessage());
+            reader = null;
+        }
+    }
+
+    /**
+     * Apply what is left in the log before shutdown, so a restart does not replay it.
+     * Consumers depend on the log, so the container runs this before the log is closed.
+     */
+    @PreDestroy
+    public void drain() {
+        applyPending();
+        log.info("Consumer {} drained to sequence {}", consumerName(), getAppliedSequence());
+    }
+
+    /**
+     * Oldest sequence this consumer still needs, used by event log retention
+     */
+    public synchronized long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("consumer", consumerName());
+        stats.put("appliedSequence", appliedSequence);
+        stats.put("lag", appliedSequence < 0 ? null : eventLog.getNextSequence() - appliedSequence);
+        return stats;
+    }
+
+    // Each node has its own log, so checkpoints are per node
+    public String consumerName() {
+        return name + "@" + eventLog.getNodeId();
+    }
+
+    private long loadCheckpoint() {
+        try {
+            Long position = jdbcTemplate.queryForObject(
+                    "SELECT position FROM event_log_checkpoints WHERE consumer = ?", Long.class, consumerName());
+            return position != null ? position : 0;
+        } catch (EmptyResultDataAccessException e) {
+            return 0;
+        }
+    }
+
+    private void saveCheckpoint(long position) {
+        jdbcTemplate.update("INSERT INTO event_log_checkpoints (consumer, position) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE position = VALUES(position)", consumerName(), position);
+    }
+}
@@ -0,0 +1,203 @@
+package com.socialstory.service;
+
+import com.socialstory.model.InteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tails the interaction event log into user_story_interactions.
+ * Each batch is coalesced per interaction - keyed by (user, story) for story-keyed events, by row id for
+ * legacy ones - then views and story-keyed counters become batched upserts and id-keyed counters a JDBC batch
+ * of in-place increments.
+ */
+@Slf4j
+@Service
+public class InteractionEventApplier extends EventLogConsumer {
+
+    // Selecting from stories and app_users skips views of stories deleted before the batch was applied
+    private static final String VIEW_UPSERT_SQL = "INSERT INTO user_story_interactions " +
+            "(user_id, story_id, first_read_at, last_read_at, read_count, completed, last_page_read, favorite) " +
+            "SELECT u.id, s.id, ?, ?, ?, false, ?, false FROM app_users u JOIN stories s ON s.id = ? WHERE u.id = ? " +
+            "ON DUPLICATE KEY UPDATE read_count = read_count + VALUES(read_count), " +
+            "last_read_at = GREATEST(COALESCE(last_read_at, VALUES(last_read_at)), VALUES(last_read_at)), " +
+            "last_page_read = GREATEST(last_page_read, VALUES(last_page_read))";
+
+    // An upsert like the views: counters whose view was lost or not applied yet still create the row
+    // instead of updating nothing. The trailing parameter keeps an existing favorite when the batch has none.
+    private static final String COUNTERS_BY_PAIR_SQL = "INSERT INTO user_story_interactions " +
+            "(user_id, story_id, first_read_at, last_read_at, read_count, completed, last_page_read, favorite, " +
+            "time_spent, questions_answered, questions_correct) " +
+            "SELECT u.id, s.id, ?, ?, 0, ?, 0, COALESCE(?, false), ?, ?, ? " +
+            "FROM app_users u JOIN stories s ON s.id = ? WHERE u.id = ? " +
+            "ON DUPLICATE KEY UPDATE time_spent = COALESCE(time_spent, 0) + VALUES(time_spent), " +
+            "questions_answered = COALESCE(questions_answered, 0) + VALUES(questions_answered), " +
+            "questions_correct = COALESCE(questions_correct, 0) + VALUES(questions_correct), " +
+            "completed = completed OR VALUES(completed), " +
+            "favorite = COALESCE(?, favorite), " +
+            "last_read_at = GREATEST(COALESCE(last_read_at, VALUES(last_read_at)), VALUES(last_read_at))";
+
+    private static final String COUNTERS_BY_ID_SQL = "UPDATE user_story_interactions SET " +
+            "time_spent = COALESCE(time_spent, 0) + ?, " +
+            "questions_answered = COALESCE(questions_answered, 0) + ?, " +
+            "questions_correct = COALESCE(questions_correct, 0) + ?, " +
+            "completed = completed OR ?, " +
+            "favorite = COALESCE(?, favorite), " +
+            "last_read_at = GREATEST(COALESCE(last_read_at, ?), ?) " +
+            "WHERE id = ?";
+
+    // Id-keyed counters whose row no longer exists; they cannot be recreated without the (user, story) pair
+    private final AtomicLong unmatchedCounterUpdates = new AtomicLong();
+
+    public InteractionEventApplier(InteractionEventLog eventLog, JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate) {
+        super("interactions", eventLog, jdbcTemplate, transactionTemplate);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.event-log.apply-interval-ms:2000}")
+    public void applyPending() {
+        super.applyPending();
+    }
+
+    @Override
+    protected void applyBatch(List<InteractionEvent> events) {
+        Map<Long, Delta> byId = new LinkedHashMap<>();
+        Map<UserStory, Delta> byPair = new LinkedHashMap<>();
+        for (InteractionEvent event : events) {
+            Delta delta;
+            if (event.getInteractionId() > 0) {
+                // UserService.toggleFavorite flips the row itself while holding its lock; replaying the logged state
+                // later could overwrite a newer flip. The event stays in the log for trending and the rollups.
+                if (event.getType() == InteractionEvent.Type.FAVORITE) {
+                    continue;
+                }
+                delta = byId.computeIfAbsent(event.getInteractionId(), id -> new Delta());
+            } else if (event.getUserId() > 0 && event.getStoryId() > 0) {
+                delta = byPair.computeIfAbsent(new UserStory(event.getUserId(), event.getStoryId()), key -> new Delta());
+            } else {
+                continue;
+            }
+            delta.add(event);
+        }
+
+        // Views first, so the rows exist before the counters of the same batch are added to them
+        List<Map.Entry<UserStory, Delta>> views = byPair.entrySet().stream().filter(e -> e.getValue().views > 0).toList();
+        if (!views.isEmpty()) {
+            jdbcTemplate.batchUpdate(VIEW_UPSERT_SQL, views, views.size(), (ps, row) -> {
+                Delta delta = row.getValue();
+                ps.setTimestamp(1, new Timestamp(delta.firstEventAt));
+                ps.setTimestamp(2, new Timestamp(delta.lastEventAt));
+                ps.setInt(3, delta.views);
+                ps.setInt(4, delta.lastPageRead);
+                ps.setLong(5, row.getKey().storyId());
+                ps.setLong(6, row.getKey().userId());
+            });
+        }
+
+        List<Map.Entry<UserStory, Delta>> pairCounters = byPair.entrySet().stream().filter(e -> e.getValue().hasCounters()).toList();
+        if (!pairCounters.isEmpty()) {
+            jdbcTemplate.batchUpdate(COUNTERS_BY_PAIR_SQL, pairCounters, pairCounters.size(), (ps, row) -> {
+                Delta delta = row.getValue();
+                ps.setTimestamp(1, new Timestamp(delta.firstEventAt));
+                ps.setTimestamp(2, new Timestamp(delta.lastEventAt));
+                ps.setBoolean(3, delta.completed);
+                ps.setObject(4, delta.favorite);
+                ps.setLong(5, delta.timeSpent);
+                ps.setInt(6, delta.answered);
+                ps.setInt(7, delta.correct);
+                ps.setLong(8, row.getKey().storyId());
+                ps.setLong(9, row.getKey().userId());
+                ps.setObject(10, delta.favorite);
+            });
+        }
+
+        List<Map.Entry<Long, Delta>> idCounters = byId.entrySet().stream().filter(e -> e.getValue().hasCounters()).toList();
+        if (!idCounters.isEmpty()) {
+            int[][] updated = jdbcTemplate.batchUpdate(COUNTERS_BY_ID_SQL, idCounters, idCounters.size(), (ps, row) -> {
+                row.getValue().bindCounters(ps);
+                ps.setLong(8, row.getKey());
+            });
+            int unmatched = 0;
+            for (int[] counts : updated) {
+                for (int count : counts) {
+                    if (count == 0) {
+                        unmatched++;
+                    }
+                }
+            }
+            if (unmatched > 0) {
+                unmatchedCounterUpdates.addAndGet(unmatched);
+                log.warn("{} of {} interaction counter updates by id matched no row and were dropped", unmatched,
+                        idCounters.size());
+            }
+        }
+        log.debug("Applied {} interaction events ({} views, {} counter updates)", events.size(), views.size(),
+                pairCounters.size() + idCounters.size());
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = super.getStatistics();
+        stats.put("unmatchedCounterUpdates", unmatchedCounterUpdates.get());
+        return stats;
+    }
+
+    private record UserStory(long userId, long storyId) {
+    }
+
+    private static class Delta {
+        int views;
+        int lastPageRead;
+        long timeSpent;
+        int answered;
+        int correct;
+        boolean completed;
+        Boolean favorite;
+        long firstEventAt = Long.MAX_VALUE;
+        long lastEventAt;
+
+        void add(InteractionEvent event) {
+            switch (event.getType()) {
+                case VIEW -> {
+                    views++;
+                    lastPageRead = Math.max(lastPageRead, (int) event.getValue());
+                }
+                case TIME -> timeSpent += event.getValue();
+                case ANSWER -> {
+                    answered++;
+                    correct += event.getValue() != 0 ? 1 : 0;
+                }
+                case COMPLETE -> completed = true;
+                case FAVORITE -> favorite = event.getValue() != 0;
+            }
+            firstEventAt = Math.min(firstEventAt, event.getTimestamp());
+            lastEventAt = Math.max(lastEventAt, event.getTimestamp());
+        }
+
+        boolean hasCounters() {
+            return timeSpent > 0 || answered > 0 || completed || favorite != null;
+        }
+
+        void bindCounters(PreparedStatement ps) throws SQLException {
+            Timestamp lastEvent = new Timestamp(lastEventAt);
+            ps.setLong(1, timeSpent);
+            ps.setInt(2, answered);
+            ps.setInt(3, correct);
+            ps.setBoolean(4, completed);
+            ps.setObject(5, favorite);
+            ps.setTimestamp(6, lastEvent);
+            ps.setTimestamp(7, lastEvent);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.socialstory.service;
+
+import com.socialstory.model.InteractionEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, node-local log of reader events; the source of truth for interaction analytics.
+ * Events are appended sequentially to memory-mapped segment files named after their first sequence number.
+ * Pages are forced to disk in batches every fsync interval, a full segment rolls over to a new file, and
+ * consumers (interaction rows, rollups) replay the log from their own checkpoint through a Reader.
+ * Appending never touches MySQL, so events keep being accepted while the database is unavailable.
+ *
+ * Record layout: int payload length, int CRC32C of the payload, then the payload. A zero length marks
+ * the end of the written part of a segment; a bad CRC marks a torn write and is truncated on recovery.
+ */
+@Slf4j
+@Service
+public class InteractionEventLog {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int PAYLOAD_BYTES = 1 + 8 + 8 + 8 + 8 + 8;
+    private static final int RECORD_BYTES = HEADER_BYTES + PAYLOAD_BYTES;
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private Segment active;
+    private long nextSequence;
+    private volatile boolean dirty;
+    private String nodeId;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+
+    public InteractionEventLog(@Value("${app.event-log.dir:data/event-log}") String directory,
+                               @Value("${app.event-log.segment-size-mb:64}") int segmentSizeMb) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        nodeId = readOrCreateNodeId();
+
+        List<Long> bases = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> bases.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        bases.sort(Long::compare);
+
+        for (Long base : bases) {
+            Segment segment = Segment.open(segmentPath(base), base, segmentBytes);
+            segment.recover();
+            segments.put(base, segment);
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        nextSequence = active.baseSequence + active.count;
+        log.info("Opened interaction event log at {} with {} segment(s), next sequence {}",
+                directory.toAbsolutePath(), segments.size(), nextSequence);
+    }
+
+    /**
+     * Append an event and return its sequence number. Durable once the next batched fsync has run.
+     */
+    public synchronized long append(InteractionEvent event) {
+        if (active.writePosition + RECORD_BYTES > segmentBytes) {
+            roll();
+        }
+        active.write(event);
+        dirty = true;
+        appended.incrementAndGet();
+        return nextSequence++;
+    }
+
+    public synchronized void appendAll(List<InteractionEvent> events) {
+        for (InteractionEvent event : events) {
+            append(event);
+        }
+    }
+
+    /**
+     * Force appended pages to disk; batching the fsync keeps appends at memory speed
+     */
+    @Scheduled(fixedDelayString = "${app.event-log.fsync-interval-ms:200}")
+    public void sync() {
+        if (!dirty) {
+            return;
+        }
+        Segment segment;
+        synchronized (this) {
+            segment = active;
+            dirty = false;
+        }
+        segment.buffer.force();
+        syncs.incrementAndGet();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        // Appends since the last batched fsync would otherwise be left to the OS to write back
+        if (active != null) {
+            active.buffer.force();
+        }
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    /**
+     * Open a reader positioned at the given sequence number (or the oldest retained event, if that is later)
+     */
+    public Reader openReader(long fromSequence) {
+        return new Reader(fromSequence);
+    }
+
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Delete sealed segments whose events all precede the given sequence and which were last written before the cutoff
+     */
+    public synchronized int deleteSegmentsBefore(long sequence, long modifiedBeforeMillis) {
+        int deleted = 0;
+        for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment == active || segment.baseSequence + segment.count > sequence) {
+                break;
+            }
+            try {
+                if (Files.getLastModifiedTime(segment.path).toMillis() >= modifiedBeforeMillis) {
+                    break;
+                }
+                segment.close();
+                Files.deleteIfExists(segment.path);
+                segments.remove(entry.getKey());
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete event log segment {}: {}", segment.path, e.getMessage());
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("nextSequence", nextSequence);
+        stats.put("firstSequence", segments.isEmpty() ? nextSequence : segments.firstKey());
+        stats.put("segments", segments.size());
+        stats.put("appended", appended.get());
+        stats.put("syncs", syncs.get());
+        return stats;
+    }
+
+    private void roll() {
+        active.buffer.force();
+        active.sealed = true;
+        active = createSegment(nextSequence);
+        log.info("Rolled interaction event log to segment {}", active.path.getFileName());
+    }
+
+    private Segment createSegment(long baseSequence) {
+        try {
+            Segment segment = Segment.open(segmentPath(baseSequence), baseSequence, segmentBytes);
+            segments.put(baseSequence, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create event log segment " + baseSequence, e);
+        }
+    }
+
+    private Path segmentPath(long baseSequence) {
+        return directory.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX));
+    }
+
+    // The node id names this log's consumer checkpoints, so it must survive restarts
+    private String readOrCreateNodeId() throws IOException {
+        Path file = directory.resolve("node.id");
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    /**
+     * Sequential reader over the log, used by one consumer thread
+     */
+    public class Reader {
+
+        private long nextSequence;
+        private Segment segment;
+        private int offset;
+
+        private Reader(long fromSequence) {
+            this.nextSequence = fromSequence;
+        }
+
+        public long getNextSequence() {
+            return nextSequence;
+        }
+
+        /**
+         * Read up to max events that were appended after the previous call
+         */
+        public List<InteractionEvent> poll(int max) {
+            List<InteractionEvent> events = new ArrayList<>();
+            while (events.size() < max) {
+                if (segment == null && !position()) {
+                    break;
+                }
+                if (segment.isClosed()) {
+                    // Deleted by retention underneath us, re-position
+                    segment = null;
+                    continue;
+                }
+                if (offset + RECORD_BYTES <= segment.committed) {
+                    events.add(segment.read(offset).withSequence(nextSequence));
+                    offset += RECORD_BYTES;
+                    nextSequence++;
+                } else if (segment.sealed || segments.higherKey(segment.baseSequence) != null) {
+                    segment = null;
+                } else {
+                    break;
+                }
+            }
+            return events;
+        }
+
+        private boolean position() {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(nextSequence);
+            if (entry == null) {
+                entry = segments.firstEntry();
+                if (entry == null) {
+                    return false;
+                }
+                log.warn("Event log reader skipped from {} to {}, older segments were deleted", nextSequence, entry.getKey());
+                nextSequence = entry.getKey();
+            }
+            segment = entry.getValue();
+            long skip = Math.min(nextSequence - segment.baseSequence, segment.count());
+            offset = (int) (skip * RECORD_BYTES);
+            nextSequence = segment.baseSequence + skip;
+            return true;
+        }
+    }
+
+    private static class Segment {
+
+        private final Path path;
+        private final long baseSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final CRC32C crc = new CRC32C();
+        private int writePosition;
+        private int count;
+        // Bytes readers may see; published after each complete record
+        private volatile int committed;
+        private volatile boolean sealed;
+        private volatile boolean closed;
+
+        private Segment(Path path, long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.baseSequence = baseSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long baseSequence, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(path, baseSequence, channel, buffer);
+        }
+
+        /**
+         * Find the end of the valid records after a restart and wipe a torn trailing record
+         */
+        void recover() {
+            int position = 0;
+            while (position + RECORD_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                if (length != PAYLOAD_BYTES || checksum(position + HEADER_BYTES) != buffer.getInt(position + 4)) {
+                    log.warn("Truncating torn record at offset {} of event log segment {}", position, path.getFileName());
+                    for (int i = position; i < Math.min(position + RECORD_BYTES, buffer.capacity()); i++) {
+                        buffer.put(i, (byte) 0);
+                    }
+                    break;
+                }
+                position += RECORD_BYTES;
+            }
+            writePosition = position;
+            count = position / RECORD_BYTES;
+            committed = position;
+            sealed = position + RECORD_BYTES > buffer.capacity();
+        }
+
+        void write(InteractionEvent event) {
+            int position = writePosition;
+            int payload = position + HEADER_BYTES;
+            buffer.put(payload, event.getType().getCode());
+            buffer.putLong(payload + 1, event.getTimestamp());
+            buffer.putLong(payload + 9, event.getUserId());
+            buffer.putLong(payload + 17, event.getStoryId());
+            buffer.putLong(payload + 25, event.getInteractionId());
+            buffer.putLong(payload + 33, event.getValue());
+            buffer.putInt(position + 4, checksum(payload));
+            // Length last: a non-zero length marks a complete record
+            buffer.putInt(position, PAYLOAD_BYTES);
+
+            writePosition = position + RECORD_BYTES;
+            count++;
+            committed = writePosition;
+        }
+
+        InteractionEvent read(int position) {
+            int payload = position + HEADER_BYTES;
+            return new InteractionEvent(-1,
+                    InteractionEvent.Type.fromCode(buffer.get(payload)),
+                    buffer.getLong(payload + 1),
+                    buffer.getLong(payload + 9),
+                    buffer.getLong(payload + 17),
+                    buffer.getLong(payload + 25),
+                    buffer.getLong(payload + 33));
+        }
+
+        long count() {
+            return committed / RECORD_BYTES;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close event log segment {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+
+        private int checksum(int payloadPosition) {
+            synchronized (crc) {
+                crc.reset();
+                crc.update(buffer.slice(payloadPosition, PAYLOAD_BYTES));
+                return (int) crc.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.socialstory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes live dashboard metrics to the admin tabs over Server-Sent Events.
+ * One scheduled tick per node reads today's totals from the rollup tables (so the numbers are cluster-wide)
+ * and broadcasts only what changed to every open tab; nothing is computed while no tab is subscribed.
+ * A new tab first receives the last computed snapshot, then deltas.
+ */
+@Slf4j
+@Service
+public class LiveMetricsHub {
+
+    private static final int TOP_STORIES = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long emitterTimeoutMillis;
+    private final CopyOnWriteArrayList<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot last;
+    private int ticksSinceSend;
+
+    public LiveMetricsHub(JdbcTemplate jdbcTemplate,
+                          @Value("${app.live-metrics.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        // A missing or stale snapshot is computed for this tab only: tick() owns last and the day switch, and
+        // follows a changed day with a full snapshot to every tab, so no tab adds today's deltas to yesterday
+        Snapshot snapshot = last;
+        if (snapshot == null || !snapshot.day.equals(LocalDate.now())) {
+            snapshot = computeSnapshot();
+        }
+        send(emitter, "snapshot", snapshot.toMap());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.live-metrics.interval-ms:5000}")
+    public void tick() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        try {
+            Snapshot previous = last;
+            Snapshot current = computeSnapshot();
+            last = current;
+
+            if (previous == null || !previous.day.equals(current.day)) {
+                broadcast("snapshot", current.toMap());
+                ticksSinceSend = 0;
+                return;
+            }
+
+            Map<String, Object> delta = new LinkedHashMap<>();
+            putIfPositive(delta, "reads", current.reads - previous.reads);
+            putIfPositive(delta, "completions", current.completions - previous.completions);
+            putIfPositive(delta, "sessions", current.sessions - previous.sessions);
+            if (!Objects.equals(previous.topStories, current.topStories)) {
+                delta.put("topStories", current.topStories);
+            }
+
+            if (!delta.isEmpty()) {
+                broadcast("delta", delta);
+                ticksSinceSend = 0;
+            } else if (++ticksSinceSend >= 6) {
+                // Keep proxies from closing idle streams
+                broadcast("heartbeat", Map.of());
+                ticksSinceSend = 0;
+            }
+        } catch (Exception e) {
+            log.warn("Computing live metrics failed: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot computeSnapshot() {
+        LocalDate today = LocalDate.now();
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT COALESCE(SUM(views), 0) AS reads, COALESCE(SUM(completions), 0) AS completions " +
+                        "FROM hourly_activity_stats WHERE hour >= ?", Timestamp.valueOf(today.atStartOfDay()));
+        Long sessions = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_sessions WHERE login_time >= ?", Long.class, Timestamp.valueOf(today.atStartOfDay()));
+        List<Map<String, Object>> topStories = jdbcTemplate.query(
+                "SELECT s.id, s.title, t.views FROM (SELECT story_id, views FROM story_daily_stats WHERE day = ? " +
+                        "ORDER BY views DESC LIMIT ?) t JOIN stories s ON s.id = t.story_id ORDER BY t.views DESC",
+                (rs, rowNum) -> {
+                    Map<String, Object> story = new LinkedHashMap<>();
+                    story.put("id", rs.getLong("id"));
+                    story.put("title", rs.getString("title"));
+                    story.put("reads", rs.getLong("views"));
+                    return story;
+                }, Date.valueOf(today), TOP_STORIES);
+
+        return new Snapshot(today, ((Number) totals.get("reads")).longValue(),
+                ((Number) totals.get("completions")).longValue(), sessions != null ? sessions : 0, topStories);
+    }
+
+    private void broadcast(String name, Object data) {
+        for (SseEmitter emitter : emitters) {
+            send(emitter, name, data);
+        }
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Tab went away, the completion callback may not fire for a broken connection
+            emitters.remove(emitter);
+        }
+    }
+
+    private static void putIfPositive(Map<String, Object> delta, String key, long value) {
+        if (value > 0) {
+            delta.put(key, value);
+        }
+    }
+
+    private record Snapshot(LocalDate day, long reads, long completions, long sessions, List<Map<String, Object>> topStories) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("reads", reads);
+            map.put("completions", completions);
+            map.put("sessions", sessions);
+            map.put("topStories", topStories);
+            return map;
+        }
+    }
+}
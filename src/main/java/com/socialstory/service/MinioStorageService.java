@@ -1,6 +1,8 @@
 package com.socialstory.service;
 
 import io.minio.*;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,7 +10,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -167,6 +171,30 @@ public class MinioStorageService {
         }
     }
 
+    /**
+     * Delete many images from one bucket with multi-object delete requests, returning how many failed
+     */
+    public int deleteImages(Collection<String> objectNames, String bucket) {
+        if (objectNames.isEmpty()) {
+            return 0;
+        }
+        List<DeleteObject> objects = objectNames.stream().map(DeleteObject::new).toList();
+        int failed = 0;
+        // The removal is lazy: requests are only sent while the results are iterated
+        for (Result<DeleteError> result : minioClient.removeObjects(
+                RemoveObjectsArgs.builder().bucket(bucket).objects(objects).build())) {
+            try {
+                DeleteError error = result.get();
+                log.warn("Error deleting image {} from bucket {}: {}", error.objectName(), bucket, error.message());
+            } catch (Exception e) {
+                log.warn("Error deleting images from bucket {}: {}", bucket, e.getMessage());
+            }
+            failed++;
+        }
+        log.info("Deleted {} of {} images from bucket: {}", objectNames.size() - failed, objectNames.size(), bucket);
+        return failed;
+    }
+
     /**
      * Upload a cover image (overwrite if exists with same object name)
      */
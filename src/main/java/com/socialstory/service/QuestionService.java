@@ -19,6 +19,7 @@ public class QuestionService {
 
     private final QuestionRepository questionRepository;
     private final StoryPageRepository storyPageRepository;
+    private final StoryViewService storyViewService;
 
     /**
      * Save a question
@@ -35,12 +36,15 @@ public class QuestionService {
                 .orElseThrow(() -> new RuntimeException("Page not found with id: " + pageId));
 
         question.setPage(page);
-        return questionRepository.save(question);
+        Question savedQuestion = questionRepository.save(question);
+        storyViewService.evictStoryView(page.getStory().getId());
+        return savedQuestion;
     }
 
     /**
      * Get a question by ID
      */
+    @Transactional(readOnly = true)
     public Question getQuestionById(Long id) {
         return questionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Question not found with id: " + id));
@@ -49,6 +53,7 @@ public class QuestionService {
     /**
      * Get all questions for a specific page
      */
+    @Transactional(readOnly = true)
     public List<Question> getQuestionsByPageId(Long pageId) {
         return questionRepository.findByPageId(pageId);
     }
@@ -56,6 +61,7 @@ public class QuestionService {
     /**
      * Get all questions for a specific story
      */
+    @Transactional(readOnly = true)
     public List<Question> getQuestionsByStoryId(Long storyId) {
         return questionRepository.findByStoryId(storyId);
     }
@@ -72,14 +78,19 @@ public class QuestionService {
         existingQuestion.setOption2(question.getOption2());
         existingQuestion.setCorrectOptionIndex(question.getCorrectOptionIndex());
 
-        return questionRepository.save(existingQuestion);
+        Question savedQuestion = questionRepository.save(existingQuestion);
+        evictStoryViewOf(savedQuestion);
+        return savedQuestion;
     }
 
     /**
      * Delete a question
      */
     public void deleteQuestion(Long id) {
-        questionRepository.deleteById(id);
+        questionRepository.findById(id).ifPresent(question -> {
+            questionRepository.delete(question);
+            evictStoryViewOf(question);
+        });
     }
 
     /**
@@ -89,4 +100,13 @@ public class QuestionService {
         List<Question> questions = questionRepository.findByPageId(pageId);
         questionRepository.deleteAll(questions);
     }
+
+    /**
+     * Drop the cached reader snapshot of the story a question belongs to
+     */
+    private void evictStoryViewOf(Question question) {
+        if (question.getPage() != null && question.getPage().getStory() != null) {
+            storyViewService.evictStoryView(question.getPage().getStory().getId());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package com.socialstory.service;
+
+import com.socialstory.model.RelatedStory;
+import com.socialstory.util.IntFloatHashMap;
+import com.socialstory.util.IntIntHashMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * "Readers also read" recommendations from item-item co-reading similarity.
+ * A periodic offline build streams (user, story) pairs from user_story_interactions into compressed arrays
+ * (stories per reader, readers per story) over dense int story indices, then scores every story's neighbours
+ * in parallel on a dedicated fork-join pool with a reusable primitive accumulator per worker:
+ * similarity(i, j) = co-readers(i, j) / sqrt(readers(i) * readers(j)).
+ * Only the top neighbours per story are kept, resolved to titles, in an immutable map swapped in atomically,
+ * so a lookup is a single hash map get with no SQL.
+ */
+@Slf4j
+@Service
+public class RecommendationService {
+
+    private static final int MISSING = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final int topN;
+    private final int minCoReaders;
+    private final int maxStoriesPerReader;
+
+    private volatile Map<Long, List<RelatedStory>> related = Map.of();
+
+    public RecommendationService(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.recommendations.top-n:6}") int topN,
+                                 @Value("${app.recommendations.min-co-readers:2}") int minCoReaders,
+                                 @Value("${app.recommendations.max-stories-per-reader:500}") int maxStoriesPerReader,
+                                 @Value("${app.recommendations.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topN = topN;
+        this.minCoReaders = minCoReaders;
+        this.maxStoriesPerReader = maxStoriesPerReader;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Get the precomputed neighbours of a story, empty when it has none yet
+     */
+    public List<RelatedStory> getRelatedStories(Long storyId) {
+        return related.getOrDefault(storyId, List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        pool.execute(this::rebuild);
+    }
+
+    @Scheduled(cron = "${app.recommendations.rebuild-cron:0 15 * * * *}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.nanoTime();
+            Stories stories = loadStories();
+            Readers readers = loadReaders(stories);
+            int[][] neighbours = new int[stories.size()][];
+            float[][] similarities = new float[stories.size()][];
+            pool.submit(() -> scoreAll(readers, stories.size(), neighbours, similarities)).get();
+
+            Map<Long, List<RelatedStory>> result = new HashMap<>(stories.size() * 2);
+            long kept = 0;
+            for (int i = 0; i < stories.size(); i++) {
+                if (neighbours[i].length == 0) {
+                    continue;
+                }
+                List<RelatedStory> list = new ArrayList<>(neighbours[i].length);
+                for (int k = 0; k < neighbours[i].length; k++) {
+                    int j = neighbours[i][k];
+                    list.add(new RelatedStory(stories.ids[j], stories.titles[j], stories.hasCover[j], similarities[i][k]));
+                }
+                result.put(stories.ids[i], List.copyOf(list));
+                kept += list.size();
+            }
+            related = Map.copyOf(result);
+
+            log.info("Rebuilt recommendations in {} ms: {} stories, {} readers, {} pairs, {} neighbours kept, "
+                            + "~{} KB of reader arrays at peak",
+                    (System.nanoTime() - started) / 1_000_000, stories.size(), readers.readerCount,
+                    readers.pairCount, kept, readers.peakBytes / 1024);
+        } catch (Exception e) {
+            log.warn("Rebuilding recommendations failed, keeping the previous ones: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Stories loadStories() {
+        Stories stories = new Stories();
+        jdbcTemplate.query("SELECT id, title, cover_image_path FROM stories WHERE status = 'PUBLISHED' ORDER BY id", rs -> {
+            String cover = rs.getString(3);
+            stories.add(rs.getLong(1), rs.getString(2), cover != null && !cover.isBlank());
+        });
+        return stories;
+    }
+
+    /**
+     * Stream the interaction pairs in (user, story) index order into stories-per-reader and readers-per-story
+     * compressed rows. Readers of more than maxStoriesPerReader stories are skipped: they relate everything to
+     * everything and dominate the quadratic pair count.
+     * Connector/J buffers a whole result set by default; a forward-only statement with a fetch size of
+     * Integer.MIN_VALUE makes it hand over one row at a time, so only the int arrays grow with the interactions.
+     */
+    private Readers loadReaders(Stories stories) {
+        Readers readers = new Readers();
+        long[] currentUser = {Long.MIN_VALUE};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT user_id, story_id FROM user_story_interactions ORDER BY user_id, story_id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, rs -> {
+            long userId = rs.getLong(1);
+            long storyId = rs.getLong(2);
+            int index = storyId <= Integer.MAX_VALUE ? stories.indexOf.get((int) storyId, MISSING) : MISSING;
+            if (index == MISSING) {
+                return;
+            }
+            if (userId != currentUser[0]) {
+                readers.endReader(maxStoriesPerReader);
+                currentUser[0] = userId;
+            }
+            readers.addStory(index);
+        });
+        readers.endReader(maxStoriesPerReader);
+        readers.invert(stories.size());
+        return readers;
+    }
+
+    private void scoreAll(Readers readers, int storyCount, int[][] neighbours, float[][] similarities) {
+        ThreadLocal<IntFloatHashMap> accumulators = ThreadLocal.withInitial(() -> new IntFloatHashMap(1024));
+        IntStream.range(0, storyCount).parallel().forEach(i -> {
+            IntFloatHashMap coReaders = accumulators.get();
+            coReaders.clear();
+            for (int r = readers.readerStart[i]; r < readers.readerStart[i + 1]; r++) {
+                int reader = readers.readersByStory[r];
+                for (int s = readers.storyStart[reader]; s < readers.storyStart[reader + 1]; s++) {
+                    int j = readers.storiesByReader[s];
+                    if (j != i) {
+                        coReaders.addTo(j, 1f);
+                    }
+                }
+            }
+            selectTop(i, coReaders, readers, neighbours, similarities);
+        });
+    }
+
+    // Keep the topN highest similarities in a small array sorted descending by insertion
+    private void selectTop(int i, IntFloatHashMap coReaders, Readers readers, int[][] neighbours, float[][] similarities) {
+        int[] best = new int[topN];
+        float[] bestScore = new float[topN];
+        int count = 0;
+        int readersOfI = readers.readerCount(i);
+        for (int k = 0; k < coReaders.size(); k++) {
+            int j = coReaders.keyAt(k);
+            float co = coReaders.get(j);
+            if (co < minCoReaders) {
+                continue;
+            }
+            float score = (float) (co / Math.sqrt((double) readersOfI * readers.readerCount(j)));
+            if (count == topN && score <= bestScore[count - 1]) {
+                continue;
+            }
+            int position = count < topN ? count++ : count - 1;
+            while (position > 0 && bestScore[position - 1] < score) {
+                best[position] = best[position - 1];
+                bestScore[position] = bestScore[position - 1];
+                position--;
+            }
+            best[position] = j;
+            bestScore[position] = score;
+        }
+        neighbours[i] = Arrays.copyOf(best, count);
+        similarities[i] = Arrays.copyOf(bestScore, count);
+    }
+
+    /** Published stories by dense index */
+    private static class Stories {
+        final IntIntHashMap indexOf = new IntIntHashMap(1024);
+        long[] ids = new long[1024];
+        String[] titles = new String[1024];
+        boolean[] hasCover = new boolean[1024];
+        int size;
+
+        void add(long id, String title, boolean cover) {
+            if (id > Integer.MAX_VALUE) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                titles = Arrays.copyOf(titles, size * 2);
+                hasCover = Arrays.copyOf(hasCover, size * 2);
+            }
+            indexOf.put((int) id, size);
+            ids[size] = id;
+            titles[size] = title;
+            hasCover[size] = cover;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /** Reading history as compressed sparse rows in both directions */
+    private static class Readers {
+        int[] storyStart = new int[1024];
+        int[] storiesByReader = new int[4096];
+        int[] readerStart;
+        int[] readersByStory;
+        int readerCount;
+        int pairCount;
+        // Largest size the arrays reached, counting both copies while one of them grows
+        long peakBytes = 4L * (storyStart.length + storiesByReader.length);
+
+        void addStory(int index) {
+            if (pairCount == storiesByReader.length) {
+                grown(pairCount * 2);
+                storiesByReader = Arrays.copyOf(storiesByReader, pairCount * 2);
+            }
+            storiesByReader[pairCount++] = index;
+        }
+
+        // Close the current reader's row, dropping it when it is too long
+        void endReader(int maxStories) {
+            int start = storyStart[readerCount];
+            if (pairCount - start > maxStories) {
+                pairCount = start;
+            }
+            if (pairCount == start) {
+                return;
+            }
+            readerCount++;
+            if (readerCount + 1 >= storyStart.length) {
+                grown(storyStart.length * 2);
+                storyStart = Arrays.copyOf(storyStart, storyStart.length * 2);
+            }
+            storyStart[readerCount] = pairCount;
+        }
+
+        void invert(int storyCount) {
+            readerStart = new int[storyCount + 1];
+            for (int p = 0; p < pairCount; p++) {
+                readerStart[storiesByReader[p] + 1]++;
+            }
+            for (int s = 0; s < storyCount; s++) {
+                readerStart[s + 1] += readerStart[s];
+            }
+            readersByStory = new int[pairCount];
+            int[] fill = Arrays.copyOf(readerStart, storyCount);
+            for (int reader = 0; reader < readerCount; reader++) {
+                for (int p = storyStart[reader]; p < storyStart[reader + 1]; p++) {
+                    readersByStory[fill[storiesByReader[p]]++] = reader;
+                }
+            }
+            peakBytes = Math.max(peakBytes, 4L * (storyStart.length + storiesByReader.length
+                    + readerStart.length + readersByStory.length + fill.length));
+        }
+
+        private void grown(int newLength) {
+            peakBytes = Math.max(peakBytes, 4L * (storyStart.length + storiesByReader.length + newLength));
+        }
+
+        int readerCount(int story) {
+            return readerStart[story + 1] - readerStart[story];
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.socialstory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Hot/cold tiering for session and interaction history.
+ * Days (in the dashboard's zone) of user_sessions older than the retention window are rolled up (daily_activity_stats,
+ * and user_daily_sessions behind the per-user session queries),
+ * exported as a gzip column-per-line JSON file to the archive directory (and object storage when configured),
+ * and only then purged from the hot table in small throttled batches. Every step is idempotent, so an
+ * interrupted day is simply redone on the next run. Old event log segments and hourly rollups are pruned too.
+ */
+@Slf4j
+@Service
+public class RetentionService {
+
+    private static final String USER_DAILY_SQL = "INSERT INTO user_daily_sessions " +
+            "(user_id, day, sessions, ended_sessions, session_seconds) " +
+            "SELECT user_id, ?, COUNT(*), COUNT(session_duration), COALESCE(SUM(session_duration), 0) " +
+            "FROM user_sessions WHERE login_time >= ? AND login_time < ? AND user_id IS NOT NULL GROUP BY user_id " +
+            "ON DUPLICATE KEY UPDATE sessions = VALUES(sessions), ended_sessions = VALUES(ended_sessions), " +
+            "session_seconds = VALUES(session_seconds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DashboardRollupService dashboardRollupService;
+    private final InteractionEventLog eventLog;
+    private final List<EventLogConsumer> consumers;
+    private final MinioClient minioClient;
+    private final ObjectMapper objectMapper;
+
+    private final int sessionRetentionDays;
+    private final int hourlyRetentionDays;
+    private final int eventLogRetentionDays;
+    private final int maxDaysPerRun;
+    private final int deleteBatchSize;
+    private final long deletePauseMillis;
+    private final Path archiveDirectory;
+    private final String archiveBucket;
+
+    public RetentionService(JdbcTemplate jdbcTemplate, DashboardRollupService dashboardRollupService,
+                            InteractionEventLog eventLog, List<EventLogConsumer> consumers,
+                            MinioClient minioClient, ObjectMapper objectMapper,
+                            @Value("${app.retention.session-days:90}") int sessionRetentionDays,
+                            @Value("${app.retention.hourly-stats-days:90}") int hourlyRetentionDays,
+                            @Value("${app.retention.event-log-days:30}") int eventLogRetentionDays,
+                            @Value("${app.retention.max-days-per-run:7}") int maxDaysPerRun,
+                            @Value("${app.retention.delete-batch-size:1000}") int deleteBatchSize,
+                            @Value("${app.retention.delete-pause-ms:200}") long deletePauseMillis,
+                            @Value("${app.retention.archive-dir:data/archive}") String archiveDirectory,
+                            @Value("${app.retention.archive-bucket:}") String archiveBucket) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dashboardRollupService = dashboardRollupService;
+        this.eventLog = eventLog;
+        this.consumers = consumers;
+        this.minioClient = minioClient;
+        this.objectMapper = objectMapper;
+        this.sessionRetentionDays = sessionRetentionDays;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+        this.eventLogRetentionDays = eventLogRetentionDays;
+        this.maxDaysPerRun = maxDaysPerRun;
+        this.deleteBatchSize = deleteBatchSize;
+        this.deletePauseMillis = deletePauseMillis;
+        this.archiveDirectory = Path.of(archiveDirectory);
+        this.archiveBucket = archiveBucket;
+    }
+
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        try {
+            archiveSessions();
+            pruneHourlyStats();
+            pruneEventLog();
+        } catch (Exception e) {
+            log.error("Retention run failed", e);
+        }
+    }
+
+    /**
+     * Archive and purge the oldest days of user_sessions beyond the retention window, a few days per run
+     */
+    public void archiveSessions() throws IOException {
+        LocalDate cutoff = LocalDate.now(dashboardRollupService.getZone()).minusDays(sessionRetentionDays);
+        for (int i = 0; i < maxDaysPerRun; i++) {
+            Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(login_time) FROM user_sessions", Timestamp.class);
+            if (oldest == null) {
+                return;
+            }
+            LocalDate day = oldest.toLocalDateTime().toLocalDate();
+            if (!day.isBefore(cutoff)) {
+                return;
+            }
+            archiveDay(day);
+        }
+    }
+
+    private void archiveDay(LocalDate day) throws IOException {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        // 1. Summaries that stay queryable after the purge
+        dashboardRollupService.refreshSessionRollup(day);
+        jdbcTemplate.update(USER_DAILY_SQL, Date.valueOf(day), from, to);
+
+        // 2. Cold copy of the raw rows
+        int rows = export(day, from, to);
+
+        // 3. Purge in small batches so the hot table is never locked for long
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update("DELETE FROM user_sessions WHERE login_time >= ? AND login_time < ? LIMIT ?",
+                    from, to, deleteBatchSize);
+            deleted += batch;
+            if (batch == deleteBatchSize) {
+                pause();
+            }
+        } while (batch == deleteBatchSize);
+
+        log.info("Archived user_sessions for {}: {} rows exported, {} rows purged", day, rows, deleted);
+    }
+
+    /**
+     * Write the day's rows column by column: one JSON line per column with all its values, gzip compressed
+     */
+    private int export(LocalDate day, Timestamp from, Timestamp to) throws IOException {
+        Map<String, List<Object>> columns = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT * FROM user_sessions WHERE login_time >= ? AND login_time < ? ORDER BY id", rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int c = 1; c <= meta.getColumnCount(); c++) {
+                Object value = rs.getObject(c);
+                columns.computeIfAbsent(meta.getColumnLabel(c), key -> new ArrayList<>())
+                        .add(value instanceof java.time.temporal.Temporal || value instanceof java.util.Date
+                                ? value.toString() : value);
+            }
+        }, from, to);
+        int rows = columns.isEmpty() ? 0 : columns.values().iterator().next().size();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("table", "user_sessions");
+            header.put("day", day.toString());
+            header.put("rows", rows);
+            header.put("columns", new ArrayList<>(columns.keySet()));
+            out.write(objectMapper.writeValueAsBytes(header));
+            out.write('\n');
+            for (Map.Entry<String, List<Object>> column : columns.entrySet()) {
+                out.write(objectMapper.writeValueAsBytes(Map.of("column", column.getKey(), "values", column.getValue())));
+                out.write('\n');
+            }
+        }
+        byte[] archive = buffer.toByteArray();
+        String name = String.format("user_sessions/%d/user_sessions-%s.jsonl.gz", day.getYear(), day);
+
+        Path file = archiveDirectory.resolve(name);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, archive);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (!archiveBucket.isBlank()) {
+            try {
+                minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(archiveBucket)
+                        .object(name)
+                        .stream(new ByteArrayInputStream(archive), archive.length, -1)
+                        .contentType("application/gzip")
+                        .build());
+            } catch (Exception e) {
+                throw new IOException("Uploading archive " + name + " failed", e);
+            }
+        }
+        return rows;
+    }
+
+    private void pruneHourlyStats() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDate.now(dashboardRollupService.getZone()).minusDays(hourlyRetentionDays).atStartOfDay());
+        int batch;
+        do {
+            batch = jdbcTemplate.update("DELETE FROM hourly_activity_stats WHERE hour < ? LIMIT ?", cutoff, deleteBatchSize);
+            if (batch == deleteBatchSize) {
+                pause();
+            }
+        } while (batch == deleteBatchSize);
+    }
+
+    // Segments go once every consumer has applied them and they are older than the retention window
+    private void pruneEventLog() {
+        long applied = Long.MAX_VALUE;
+        for (EventLogConsumer consumer : consumers) {
+            long sequence = consumer.getAppliedSequence();
+            if (sequence < 0) {
+                return;
+            }
+            applied = Math.min(applied, sequence);
+        }
+        long cutoffMillis = System.currentTimeMillis() - eventLogRetentionDays * 86_400_000L;
+        int deleted = eventLog.deleteSegmentsBefore(applied, cutoffMillis);
+        if (deleted > 0) {
+            log.info("Deleted {} event log segment(s) before sequence {}", deleted, applied);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(deletePauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.socialstory.service;
+
+import com.socialstory.model.Question;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryPage;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes a story with set-based statements instead of loading and removing its entities one by one.
+ * Rows go in foreign key order - reader interactions, questions, pages, then the story itself - each table in
+ * DELETE ... LIMIT chunks that commit on their own, so a heavily read story never holds long row locks or builds
+ * one huge undo log. The story is unpublished first so readers stop reaching it while the chunks run, and every
+ * step is idempotent: a deletion that fails halfway is finished by running it again.
+ * The MinIO objects are removed on a background thread once the rows are gone.
+ */
+@Slf4j
+@Service
+public class StoryDeletionService {
+
+    // Keeps the IN list of the question deletes short
+    private static final int PAGE_IDS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MinioStorageService minioStorageService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus invalidationBus;
+    private final DashboardRollupService dashboardRollupService;
+    private final int deleteBatchSize;
+    private final long deletePauseMillis;
+
+    private final ExecutorService imageCleanup = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "story-image-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong storiesDeleted = new AtomicLong();
+    private final AtomicLong rowsDeleted = new AtomicLong();
+    private final AtomicLong imagesDeleted = new AtomicLong();
+    private final AtomicLong imageFailures = new AtomicLong();
+
+    public StoryDeletionService(JdbcTemplate jdbcTemplate, MinioStorageService minioStorageService,
+                                EntityManagerFactory entityManagerFactory, CacheInvalidationBus invalidationBus,
+                                DashboardRollupService dashboardRollupService,
+                                @Value("${app.stories.delete-batch-size:1000}") int deleteBatchSize,
+                                @Value("${app.stories.delete-pause-ms:50}") long deletePauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minioStorageService = minioStorageService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.invalidationBus = invalidationBus;
+        this.dashboardRollupService = dashboardRollupService;
+        this.deleteBatchSize = deleteBatchSize;
+        this.deletePauseMillis = deletePauseMillis;
+    }
+
+    /**
+     * Delete the story and everything hanging off it. Must not run inside a transaction, so each chunk commits.
+     */
+    public void deleteStory(Long storyId) {
+        long started = System.nanoTime();
+        List<String> story = jdbcTemplate.queryForList("SELECT cover_image_path FROM stories WHERE id = ?",
+                String.class, storyId);
+        if (story.isEmpty()) {
+            throw new RuntimeException("Story not found with id: " + storyId);
+        }
+        String coverImage = story.get(0);
+
+        jdbcTemplate.update("UPDATE stories SET status = ? WHERE id = ?", Story.StoryStatus.DRAFT.name(), storyId);
+
+        List<Long> pageIds = new ArrayList<>();
+        List<String> pageImages = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, image_path FROM story_pages WHERE story_id = ?", rs -> {
+            pageIds.add(rs.getLong(1));
+            if (rs.getString(2) != null) {
+                pageImages.add(rs.getString(2));
+            }
+        }, storyId);
+
+        int interactions = deleteInChunks("DELETE FROM user_story_interactions WHERE story_id = ? LIMIT ?", storyId);
+        int questions = 0;
+        for (int from = 0; from < pageIds.size(); from += PAGE_IDS_PER_STATEMENT) {
+            List<Long> slice = pageIds.subList(from, Math.min(from + PAGE_IDS_PER_STATEMENT, pageIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(slice.size(), "?"));
+            questions += deleteInChunks("DELETE FROM questions WHERE page_id IN (" + placeholders + ") LIMIT ?",
+                    slice.toArray());
+        }
+        int pages = deleteInChunks("DELETE FROM story_pages WHERE story_id = ? LIMIT ?", storyId);
+        // Zero when a retried deletion finds the story already gone, so the total is only decremented once
+        int stories = jdbcTemplate.update("DELETE FROM stories WHERE id = ?", storyId);
+        dashboardRollupService.adjustTotal(DashboardRollupService.TOTAL_STORIES, -stories);
+
+        evictSecondLevelCache(storyId, pageIds);
+        storiesDeleted.incrementAndGet();
+        rowsDeleted.addAndGet(interactions + questions + pages + 1L);
+        log.info("Deleted story {} in {} ms: {} interactions, {} questions, {} pages",
+                storyId, (System.nanoTime() - started) / 1_000_000, interactions, questions, pages);
+
+        List<String> covers = coverImage != null ? List.of(coverImage) : List.of();
+        imageCleanup.execute(() -> {
+            deleteImages(covers, minioStorageService.getCoversBucket());
+            deleteImages(pageImages, minioStorageService.getPagesBucket());
+        });
+    }
+
+    // Runs the statement with the batch size appended as the LIMIT parameter until it deletes less than a batch
+    private int deleteInChunks(String sql, Object... keys) {
+        Object[] args = new Object[keys.length + 1];
+        System.arraycopy(keys, 0, args, 0, keys.length);
+        args[keys.length] = deleteBatchSize;
+
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(sql, args);
+            deleted += batch;
+            if (batch == deleteBatchSize) {
+                pause();
+            }
+        } while (batch == deleteBatchSize);
+        return deleted;
+    }
+
+    // The rows went around Hibernate, so drop their cached copies here and on the other nodes
+    private void evictSecondLevelCache(Long storyId, List<Long> pageIds) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Story.class, storyId);
+        cache.evictCollectionData(Story.class.getName() + ".pages", storyId);
+        invalidationBus.publish(CacheInvalidationBus.HIBERNATE_PREFIX + Story.class.getName(), storyId);
+        for (Long pageId : pageIds) {
+            cache.evictEntityData(StoryPage.class, pageId);
+            cache.evictCollectionData(StoryPage.class.getName() + ".questions", pageId);
+            invalidationBus.publish(CacheInvalidationBus.HIBERNATE_PREFIX + StoryPage.class.getName(), pageId);
+        }
+        // Question ids were never loaded; the region is small enough to clear
+        cache.evictEntityData(Question.class);
+        invalidationBus.publish(CacheInvalidationBus.HIBERNATE_PREFIX + Question.class.getName(), null);
+    }
+
+    private void deleteImages(List<String> objectNames, String bucket) {
+        try {
+            int failed = minioStorageService.deleteImages(objectNames, bucket);
+            imagesDeleted.addAndGet(objectNames.size() - failed);
+            imageFailures.addAndGet(failed);
+        } catch (Exception e) {
+            imageFailures.addAndGet(objectNames.size());
+            log.warn("Deleting {} images from {} failed: {}", objectNames.size(), bucket, e.getMessage());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(deletePauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let queued image cleanups finish; the rows are already gone, so nothing else would remove the objects
+        imageCleanup.shutdown();
+        imageCleanup.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("storiesDeleted", storiesDeleted.get());
+        stats.put("rowsDeleted", rowsDeleted.get());
+        stats.put("imagesDeleted", imagesDeleted.get());
+        stats.put("imageFailures", imageFailures.get());
+        return stats;
+    }
+}
@@ -2,15 +2,19 @@ package com.socialstory.service;
 
 import com.socialstory.model.*;
 import com.socialstory.repository.*;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -24,17 +28,20 @@ import java.util.stream.Collectors;
 public class StoryService {
 
     private final StoryRepository storyRepository;
-    private final QuestionService questionService;
+    private final StoryPageRepository storyPageRepository;
+    private final QuestionRepository questionRepository;
     private final StoryArchiveRepository storyArchiveRepository;
     private final MinioStorageService minioStorageService;
-    private final UserStoryInteractionRepository userStoryInteractionRepository;
+    private final StoryDeletionService storyDeletionService;
+    private final DashboardRollupService dashboardRollupService;
 
     @CacheEvict(value = "storiesPageCache", allEntries = true)
     public Story createStory(Story story, List<MultipartFile> pageImages, MultipartFile coverImage) {
-        // Set bidirectional relationships for pages
+        // Set bidirectional relationships for pages and their questions, so one save cascades everything
         if (story.getPages() != null) {
             story.getPages().forEach(page -> {
                 page.setStory(story);
+                attachQuestions(page);
             });
         }
 
@@ -74,308 +81,353 @@ public class StoryService {
             }
         }
 
-        // Save the story first to get IDs
-        Story savedStory = storyRepository.save(story);
-
-        // Process questions if any
-        processQuestions(savedStory);
-
-        return savedStory;
+        // Pages and questions get pooled ids and are inserted in one JDBC batch each at commit
+        Story saved = storyRepository.save(story);
+        dashboardRollupService.adjustTotal(DashboardRollupService.TOTAL_STORIES, 1);
+        return saved;
     }
 
-    @CacheEvict(value = "storiesPageCache", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#updatedStory.id")
+    })
     public Story updateStory(Story updatedStory, List<MultipartFile> pageImages,
                              MultipartFile coverImageFile, List<Boolean> keepExistingImages,
                              Boolean keepExistingCover) {
 
-        Story existingStory = storyRepository.findById(updatedStory.getId())
+        Story existingStory = storyRepository.findWithPagesById(updatedStory.getId())
                 .orElseThrow(() -> new RuntimeException("Story not found with id: " + updatedStory.getId()));
 
-        // Update basic story properties
+        // Update basic story properties. A full save always sends the story back to draft, so its row is always
+        // rewritten; of the pages and questions, only entities whose values changed are updated
         existingStory.setTitle(updatedStory.getTitle());
         existingStory.setTags(updatedStory.getTags());
         existingStory.setStatus(Story.StoryStatus.DRAFT);
         existingStory.setChangedBy(updatedStory.getChangedBy());
         existingStory.setSubmittedForApprovalAt(LocalDateTime.now());
 
-        // Update cover image if provided
+        // Replaced or removed images are only deleted from MinIO once the new state is committed
+        List<String> obsoleteCovers = new ArrayList<>();
+        List<String> obsoletePageImages = new ArrayList<>();
+
+        // Update cover image only if a new one was uploaded
         if (coverImageFile != null && !coverImageFile.isEmpty()) {
             try {
-                // Delete old MinIO image if exists
-                if (existingStory.getCoverImagePath() != null) {
-                    try {
-                        minioStorageService.deleteImage(existingStory.getCoverImagePath(),
-                                minioStorageService.getCoversBucket());
-                    } catch (Exception e) {
-                        log.warn("Error deleting old cover image from MinIO: {}", e.getMessage());
-                    }
-                }
-
-                // Upload new image to MinIO
                 String coverPath = minioStorageService.uploadCoverImage(
                         coverImageFile.getBytes(),
                         coverImageFile.getContentType());
+                if (existingStory.getCoverImagePath() != null) {
+                    obsoleteCovers.add(existingStory.getCoverImagePath());
+                }
                 existingStory.setCoverImagePath(coverPath);
                 existingStory.setImageMigrated(true);
-
             } catch (Exception e) {
                 log.error("Error processing cover image: {}", e.getMessage(), e);
             }
         }
 
-        // Create a map of existing pages by ID for quick lookup
-        Map<Long, StoryPage> existingPages = existingStory.getPages().stream()
-                .collect(Collectors.toMap(StoryPage::getId, page -> page));
-
-        // Create a map to store new questions for each page
-        Map<Long, List<Question>> pageQuestionsMap = new HashMap<>();
-
-        // Update pages
         if (updatedStory.getPages() != null) {
-            List<StoryPage> updatedPages = new ArrayList<>();
+            Map<Long, StoryPage> existingPages = existingStory.getPages().stream()
+                    .collect(Collectors.toMap(StoryPage::getId, page -> page));
+            Set<Long> keptPageIds = new HashSet<>();
+            List<StoryPage> newPages = new ArrayList<>();
 
             for (int i = 0; i < updatedStory.getPages().size(); i++) {
                 StoryPage updatedPage = updatedStory.getPages().get(i);
+                StoryPage page = updatedPage.getId() != null ? existingPages.get(updatedPage.getId()) : null;
+                if (page != null) {
+                    keptPageIds.add(page.getId());
+                } else {
+                    page = new StoryPage();
+                    page.setStory(existingStory);
+                    newPages.add(page);
+                }
+                page.setText(updatedPage.getText());
+                page.setPageOrder(updatedPage.getPageOrder());
 
-                if (updatedPage.getId() != null && existingPages.containsKey(updatedPage.getId())) {
-                    // This is an existing page - update it
-                    StoryPage existingPage = existingPages.get(updatedPage.getId());
-                    existingPage.setText(updatedPage.getText());
-                    existingPage.setPageOrder(updatedPage.getPageOrder());
-
-                    // Store questions separately
-                    if (updatedPage.getQuestions() != null) {
-                        pageQuestionsMap.put(existingPage.getId(), new ArrayList<>(updatedPage.getQuestions()));
-                    } else {
-                        pageQuestionsMap.put(existingPage.getId(), new ArrayList<>());
-                    }
-
-                    // Handle image update
-                    if (pageImages != null && i < pageImages.size() && !pageImages.get(i).isEmpty()) {
-                        // New image uploaded - replace existing
-                        try {
-                            MultipartFile imageFile = pageImages.get(i);
-
-                            // Delete old MinIO image if exists
-                            if (existingPage.getImagePath() != null) {
-                                try {
-                                    minioStorageService.deleteImage(existingPage.getImagePath(),
-                                            minioStorageService.getPagesBucket());
-                                } catch (Exception e) {
-                                    log.warn("Error deleting old page image from MinIO: {}", e.getMessage());
-                                }
-                            }
-
-                            // Upload new image to MinIO
-                            String imagePath = minioStorageService.uploadPageImage(
-                                    imageFile.getBytes(),
-                                    imageFile.getContentType());
-                            existingPage.setImagePath(imagePath);
-                            existingPage.setImageMigrated(true);
-
-                        } catch (Exception e) {
-                            log.error("Error processing page image: {}", e.getMessage(), e);
+                // An empty file input means the page keeps its image, no MinIO call
+                if (pageImages != null && i < pageImages.size() && !pageImages.get(i).isEmpty()) {
+                    try {
+                        MultipartFile imageFile = pageImages.get(i);
+                        String imagePath = minioStorageService.uploadPageImage(
+                                imageFile.getBytes(),
+                                imageFile.getContentType());
+                        if (page.getImagePath() != null) {
+                            obsoletePageImages.add(page.getImagePath());
                         }
+                        page.setImagePath(imagePath);
+                        page.setImageMigrated(true);
+                    } catch (Exception e) {
+                        log.error("Error processing page image: {}", e.getMessage(), e);
                     }
+                }
 
-                    updatedPages.add(existingPage);
-                } else {
-                    // This is a new page
-                    updatedPage.setStory(existingStory);
-
-                    // Handle new page image if provided
-                    if (pageImages != null && i < pageImages.size() && !pageImages.get(i).isEmpty()) {
-                        try {
-                            MultipartFile imageFile = pageImages.get(i);
-                            String imagePath = minioStorageService.uploadPageImage(
-                                    imageFile.getBytes(),
-                                    imageFile.getContentType());
-                            updatedPage.setImagePath(imagePath);
-                            updatedPage.setImageMigrated(true);
-                        } catch (Exception e) {
-                            log.error("Error processing page image: {}", e.getMessage(), e);
-                        }
-                    }
+                mergeQuestions(page, updatedPage.getQuestions());
+            }
 
-                    updatedPages.add(updatedPage);
+            // Pages missing from the form are orphan-removed together with their questions
+            Iterator<StoryPage> pages = existingStory.getPages().iterator();
+            while (pages.hasNext()) {
+                StoryPage page = pages.next();
+                if (!keptPageIds.contains(page.getId())) {
+                    if (page.getImagePath() != null) {
+                        obsoletePageImages.add(page.getImagePath());
+                    }
+                    pages.remove();
                 }
             }
+            existingStory.getPages().addAll(newPages);
+        }
 
-            // Delete any pages that are in the database but not in the updated story
-            Set<Long> updatedPageIds = updatedPages.stream()
-                    .filter(p -> p.getId() != null)
-                    .map(StoryPage::getId)
-                    .collect(Collectors.toSet());
-
-            List<StoryPage> pagesToDelete = existingStory.getPages().stream()
-                    .filter(p -> !updatedPageIds.contains(p.getId()))
-                    .collect(Collectors.toList());
+        deleteImagesAfterCommit(obsoleteCovers, minioStorageService.getCoversBucket());
+        deleteImagesAfterCommit(obsoletePageImages, minioStorageService.getPagesBucket());
+        return existingStory;
+    }
 
-            // Delete pages and their images from MinIO
-            for (StoryPage pageToDelete : pagesToDelete) {
-                if (pageToDelete.getImagePath() != null) {
-                    try {
-                        minioStorageService.deleteImage(pageToDelete.getImagePath(),
-                                minioStorageService.getPagesBucket());
-                    } catch (Exception e) {
-                        log.warn("Error deleting page image from MinIO: {}", e.getMessage());
-                    }
+    /**
+     * Bring the questions of a page in line with the submitted ones: matching ids are updated in place (and only
+     * written when a value changed), new ones inserted, missing ones orphan-removed
+     */
+    private void mergeQuestions(StoryPage page, List<Question> submitted) {
+        if (page.getQuestions() == null) {
+            page.setQuestions(new ArrayList<>());
+        }
+        Map<Long, Question> current = page.getQuestions().stream()
+                .filter(question -> question.getId() != null)
+                .collect(Collectors.toMap(Question::getId, question -> question));
+        Set<Long> keptIds = new HashSet<>();
+        List<Question> added = new ArrayList<>();
+
+        if (submitted != null) {
+            for (Question question : submitted) {
+                if (question == null || question.getText() == null || question.getText().isEmpty()) {
+                    continue;
+                }
+                Question target = question.getId() != null ? current.get(question.getId()) : null;
+                if (target != null) {
+                    keptIds.add(target.getId());
+                } else {
+                    target = new Question();
+                    target.setPage(page);
+                    added.add(target);
                 }
+                target.setText(question.getText());
+                target.setOption1(question.getOption1());
+                target.setOption2(question.getOption2());
+                target.setCorrectOptionIndex(question.getCorrectOptionIndex());
             }
+        }
+
+        page.getQuestions().removeIf(question -> question.getId() != null && !keptIds.contains(question.getId()));
+        page.getQuestions().addAll(added);
+    }
 
-            // Replace all pages
-            existingStory.getPages().clear();
-            existingStory.getPages().addAll(updatedPages);
+    /**
+     * Replace the text of one page (editor autosave)
+     */
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
+    })
+    public void updatePageText(Long storyId, Long pageId, String text, String changedBy) {
+        if (text == null || text.isBlank()) {
+            throw new RuntimeException("Page text must not be empty");
         }
+        StoryPage page = getPageOfStory(storyId, pageId);
+        page.setText(text);
+        markEdited(page.getStory(), changedBy);
+    }
 
-        // Save the updated story first
-        Story savedStory = storyRepository.save(existingStory);
-
-        // Now handle questions separately to avoid Hibernate collection issues
-        for (StoryPage page : savedStory.getPages()) {
-            if (pageQuestionsMap.containsKey(page.getId())) {
-                List<Question> questionsForPage = pageQuestionsMap.get(page.getId());
-
-                // Delete existing questions first
-                questionService.deleteQuestionsByPageId(page.getId());
-
-                // Save new questions
-                for (Question question : questionsForPage) {
-                    if (question != null && question.getText() != null && !question.getText().isEmpty()) {
-                        // Create a fresh question object
-                        Question newQuestion = new Question();
-                        newQuestion.setText(question.getText());
-                        newQuestion.setOption1(question.getOption1());
-                        newQuestion.setOption2(question.getOption2());
-                        newQuestion.setCorrectOptionIndex(question.getCorrectOptionIndex());
-                        newQuestion.setPage(page);
-
-                        questionService.saveQuestion(newQuestion);
-                    }
-                }
-            }
+    /**
+     * Put the pages of a story in the given order; the ids must be exactly the story's pages
+     */
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
+    })
+    public void reorderPages(Long storyId, List<Long> pageIds, String changedBy) {
+        Story story = storyRepository.findWithPagesById(storyId)
+                .orElseThrow(() -> new RuntimeException("Story not found with id: " + storyId));
+        Map<Long, StoryPage> pages = story.getPages().stream()
+                .collect(Collectors.toMap(StoryPage::getId, page -> page));
+        if (pageIds == null || pageIds.size() != pages.size() || !pages.keySet().equals(new HashSet<>(pageIds))) {
+            throw new RuntimeException("Page order must list every page of story " + storyId + " exactly once");
+        }
+        // Only pages whose position changed are written
+        for (int i = 0; i < pageIds.size(); i++) {
+            pages.get(pageIds.get(i)).setPageOrder(i);
         }
+        markEdited(story, changedBy);
+    }
 
-        return savedStory;
+    /**
+     * Upload a new image for one page; the previous image is deleted from MinIO after commit
+     */
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
+    })
+    public String replacePageImage(Long storyId, Long pageId, MultipartFile image, String changedBy) {
+        if (image == null || image.isEmpty()) {
+            throw new RuntimeException("No image uploaded");
+        }
+        StoryPage page = getPageOfStory(storyId, pageId);
+        String imagePath;
+        try {
+            imagePath = minioStorageService.uploadPageImage(image.getBytes(), image.getContentType());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload page image: " + e.getMessage(), e);
+        }
+        if (page.getImagePath() != null) {
+            deleteImagesAfterCommit(List.of(page.getImagePath()), minioStorageService.getPagesBucket());
+        }
+        page.setImagePath(imagePath);
+        page.setImageMigrated(true);
+        markEdited(page.getStory(), changedBy);
+        return imagePath;
     }
 
-    // Original method for backward compatibility
-    public Page<Story> getFullStoriesPage(int page, int size) {
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return storyRepository.findAll(pageRequest);
+    /**
+     * Insert a question on a page, or update it in place when it carries the id of one of the page's questions
+     */
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
+    })
+    public Question upsertQuestion(Long storyId, Long pageId, Question question, String changedBy) {
+        if (question.getText() == null || question.getText().isBlank()) {
+            throw new RuntimeException("Question text must not be empty");
+        }
+        StoryPage page = getPageOfStory(storyId, pageId);
+        Question target;
+        if (question.getId() != null) {
+            target = page.getQuestions().stream()
+                    .filter(existing -> question.getId().equals(existing.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Question " + question.getId() + " not found on page " + pageId));
+        } else {
+            target = new Question();
+            target.setPage(page);
+            page.getQuestions().add(target);
+        }
+        target.setText(question.getText());
+        target.setOption1(question.getOption1());
+        target.setOption2(question.getOption2());
+        target.setCorrectOptionIndex(question.getCorrectOptionIndex());
+        markEdited(page.getStory(), changedBy);
+        // Persisting assigns the pooled id now, the insert itself happens at commit
+        return target.getId() != null ? target : questionRepository.save(target);
     }
 
     /**
-     * Process questions for each page of the story (used for story creation)
+     * Remove one question of a story
      */
-    private void processQuestions(Story story) {
-        if (story.getPages() != null) {
-            for (int pageIndex = 0; pageIndex < story.getPages().size(); pageIndex++) {
-                StoryPage page = story.getPages().get(pageIndex);
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
+    })
+    public void deleteQuestion(Long storyId, Long pageId, Long questionId, String changedBy) {
+        StoryPage page = getPageOfStory(storyId, pageId);
+        if (page.getQuestions().removeIf(question -> questionId.equals(question.getId()))) {
+            markEdited(page.getStory(), changedBy);
+        }
+    }
 
-                // First, delete all existing questions for this page to avoid conflicts
-                if (page.getId() != null) {
-                    questionService.deleteQuestionsByPageId(page.getId());
-                }
+    private StoryPage getPageOfStory(Long storyId, Long pageId) {
+        return storyPageRepository.findById(pageId)
+                .filter(page -> page.getStory() != null && storyId.equals(page.getStory().getId()))
+                .orElseThrow(() -> new RuntimeException("Page " + pageId + " not found in story " + storyId));
+    }
 
-                // Process questions for this page
-                if (page.getQuestions() != null && !page.getQuestions().isEmpty()) {
-                    List<Question> questions = new ArrayList<>(page.getQuestions());
-
-                    // Add each question as a new entity
-                    for (Question question : questions) {
-                        if (question != null && question.getText() != null && !question.getText().isEmpty()) {
-                            // Create a fresh question object to avoid Hibernate issues
-                            Question newQuestion = new Question();
-                            newQuestion.setText(question.getText());
-                            newQuestion.setOption1(question.getOption1());
-                            newQuestion.setOption2(question.getOption2());
-                            newQuestion.setCorrectOptionIndex(question.getCorrectOptionIndex());
-                            newQuestion.setPage(page);
-
-                            questionService.saveQuestion(newQuestion);
-                        }
+    // Autosaves only record who edited: they run every few seconds while typing, and must not take a published
+    // story off the site or reorder the approval queue. A full save is what sends a story back to draft.
+    private void markEdited(Story story, String changedBy) {
+        if (changedBy != null) {
+            story.setChangedBy(changedBy);
+        }
+    }
+
+    private void deleteImagesAfterCommit(List<String> objectNames, String bucket) {
+        if (objectNames.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (String objectName : objectNames) {
+                    try {
+                        minioStorageService.deleteImage(objectName, bucket);
+                    } catch (Exception e) {
+                        log.warn("Error deleting image {} from MinIO: {}", objectName, e.getMessage());
                     }
                 }
             }
+        });
+    }
+
+    // Original method for backward compatibility
+    @Transactional(readOnly = true)
+    public Page<Story> getFullStoriesPage(int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        return storyRepository.findAll(pageRequest);
+    }
+
+    /**
+     * Keep the filled-in questions of a new page and point them at it (used for story creation)
+     */
+    private void attachQuestions(StoryPage page) {
+        if (page.getQuestions() == null) {
+            page.setQuestions(new ArrayList<>());
+            return;
+        }
+        page.getQuestions().removeIf(question -> question == null || question.getText() == null || question.getText().isEmpty());
+        for (Question question : page.getQuestions()) {
+            question.setId(null);
+            question.setPage(page);
         }
     }
 
+    @Transactional(readOnly = true)
     public Story getStoryById(Long id) {
         return storyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Story not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public List<Story> getAllStories() {
         return storyRepository.findAll();
     }
 
-    @CacheEvict(value = "storiesPageCache", allEntries = true)
-    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "storiesPageCache", allEntries = true),
+            @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#id")
+    })
+    // Bulk chunked deletes that commit one by one, so no surrounding transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteStory(Long id) {
         log.info("Starting deletion of story with id: {}", id);
 
         try {
-            Story story = storyRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Story not found with id: " + id));
-
-            // Step 1: Delete user story interactions first
-            log.info("Deleting user story interactions for story id: {}", id);
-            List<UserStoryInteraction> interactions = userStoryInteractionRepository.findByStoryId(id);
-            if (!interactions.isEmpty()) {
-                userStoryInteractionRepository.deleteAll(interactions);
-                log.info("Deleted {} user story interactions", interactions.size());
-            }
-
-            // Step 2: Delete images from MinIO
-            log.info("Cleaning up MinIO images for story id: {}", id);
-
-            // Delete cover image from MinIO
-            if (story.getCoverImagePath() != null) {
-                try {
-                    minioStorageService.deleteImage(story.getCoverImagePath(),
-                            minioStorageService.getCoversBucket());
-                    log.info("Deleted cover image from MinIO: {}", story.getCoverImagePath());
-                } catch (Exception e) {
-                    log.warn("Failed to delete cover image from MinIO: {}", e.getMessage());
-                }
-            }
-
-            // Delete page images from MinIO
-            if (story.getPages() != null) {
-                for (StoryPage page : story.getPages()) {
-                    if (page.getImagePath() != null) {
-                        try {
-                            minioStorageService.deleteImage(page.getImagePath(),
-                                    minioStorageService.getPagesBucket());
-                            log.info("Deleted page image from MinIO: {}", page.getImagePath());
-                        } catch (Exception e) {
-                            log.warn("Failed to delete page image from MinIO: {}", e.getMessage());
-                        }
-                    }
-                }
-            }
-
-            // Step 3: Delete the story
-            log.info("Deleting story entity with id: {}", id);
-            storyRepository.deleteById(id);
-
-            log.info("Successfully deleted story with id: {}", id);
-
+            storyDeletionService.deleteStory(id);
         } catch (Exception e) {
             log.error("Error deleting story with id {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Failed to delete story: " + e.getMessage(), e);
         }
     }
 
+    @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
     @Transactional
-    public Story submitForApproval(Long storyId) {
+    public Story submitForApproval(Long storyId, String changedBy) {
         Story story = getStoryById(storyId);
+        if (changedBy != null) {
+            story.setChangedBy(changedBy);
+        }
         story.setStatus(Story.StoryStatus.PENDING);
         story.setSubmittedForApprovalAt(LocalDateTime.now());
         return storyRepository.save(story);
     }
 
+    @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
     @Transactional
     public Story approveStory(Long storyId, String approverEmail) {
         Story story = getStoryById(storyId);
@@ -385,6 +437,7 @@ public class StoryService {
         return storyRepository.save(story);
     }
 
+    @CacheEvict(value = StoryViewService.CACHE_NAME, key = "#storyId")
     @Transactional
     public void rejectStory(Long storyId, String rejectorEmail, String reason) {
         Story story = getStoryById(storyId);
@@ -406,12 +459,15 @@ public class StoryService {
         storyRepository.save(story);
     }
 
+    // Read-write so it stays on the primary: a page read from a lagging replica would be cached for its whole TTL
     @Cacheable(value = "storiesPageCache", key = "#page + '-' + #size")
+    @Transactional
     public Page<StoryListDTO> getStoriesPage(int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by("createdAt").descending());
         return storyRepository.findAllPublishedStoriesForList(pageRequest);
     }
 
+    @Transactional(readOnly = true)
     public Page<StoryListDTO> getPendingStoriesPage(int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by("submittedForApprovalAt").descending());
         return storyRepository.findPendingStoriesForList(pageRequest);
@@ -0,0 +1,70 @@
+package com.socialstory.service;
+
+import com.socialstory.model.Question;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryView;
+import com.socialstory.repository.QuestionRepository;
+import com.socialstory.repository.StoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Compiles and caches the immutable reader snapshots of stories.
+ * Snapshots are keyed by story id; write paths in StoryService evict them and publishing recompiles them.
+ * Compilation deliberately runs in read-write transactions, which stay on the primary: a snapshot is compiled
+ * right after a write and cached for an hour, so reading it from a lagging replica would pin stale content.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StoryViewService {
+
+    public static final String CACHE_NAME = "storyViewCache";
+
+    private final StoryRepository storyRepository;
+    private final QuestionRepository questionRepository;
+
+    /**
+     * Get the reader snapshot of a story, compiling it only on a cache miss
+     */
+    @Cacheable(value = CACHE_NAME, key = "#storyId")
+    @Transactional
+    public StoryView getStoryView(Long storyId) {
+        return compileStoryView(storyId);
+    }
+
+    /**
+     * Recompile the snapshot of a story and replace the cached one (used when a story is published)
+     */
+    @CachePut(value = CACHE_NAME, key = "#storyId")
+    @Transactional
+    public StoryView refreshStoryView(Long storyId) {
+        return compileStoryView(storyId);
+    }
+
+    @CacheEvict(value = CACHE_NAME, key = "#storyId")
+    public void evictStoryView(Long storyId) {
+        log.debug("Evicted story view snapshot for story {}", storyId);
+    }
+
+    /**
+     * Build a fresh snapshot without touching the cache: one query for the story and its pages, one for its questions
+     */
+    @Transactional
+    public StoryView compileStoryView(Long storyId) {
+        Story story = storyRepository.findWithPagesById(storyId)
+                .orElseThrow(() -> new RuntimeException("Story not found with id: " + storyId));
+        List<Question> questions = questionRepository.findByStoryId(storyId);
+
+        StoryView view = StoryView.from(story, questions);
+        log.debug("Compiled story view for story {} (version {}, {} pages)", storyId, view.getVersion(), view.getPages().size());
+        return view;
+    }
+}
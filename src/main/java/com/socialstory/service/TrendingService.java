@@ -0,0 +1,188 @@
+package com.socialstory.service;
+
+import com.socialstory.model.InteractionEvent;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryView;
+import com.socialstory.model.TrendingStory;
+import com.socialstory.util.SpaceSavingSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Trending now" stories from a Space-Saving sketch with exponential decay, fed by the view, completion and
+ * favorite events of this node's interaction event log. The current top-k is precomputed after every update,
+ * so a lookup just returns that list. The sketch is snapshotted to the database periodically and restored on
+ * startup, after which the log is replayed from the snapshot's sequence.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+
+    private static final int POLL_LIMIT = 10_000;
+    // How long a story whose lookup failed (usually deleted) is skipped before it is looked up again
+    private static final long UNRESOLVED_RETRY_MILLIS = 60_000;
+
+    private final InteractionEventLog eventLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StoryViewService storyViewService;
+
+    private final int capacity;
+    private final int topK;
+    private final long halfLifeMillis;
+    private final double viewWeight;
+    private final double completeWeight;
+    private final double favoriteWeight;
+
+    private SpaceSavingSketch sketch;
+    private InteractionEventLog.Reader reader;
+    private final Map<Long, Long> unresolvedUntil = new HashMap<>();
+    private volatile List<TrendingStory> trending = List.of();
+
+    public TrendingService(InteractionEventLog eventLog, JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate, StoryViewService storyViewService,
+                           @Value("${app.trending.capacity:200}") int capacity,
+                           @Value("${app.trending.top-k:8}") int topK,
+                           @Value("${app.trending.half-life-minutes:60}") long halfLifeMinutes,
+                           @Value("${app.trending.weight.view:1}") double viewWeight,
+                           @Value("${app.trending.weight.complete:3}") double completeWeight,
+                           @Value("${app.trending.weight.favorite:5}") double favoriteWeight) {
+        this.eventLog = eventLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.storyViewService = storyViewService;
+        this.capacity = capacity;
+        this.topK = topK;
+        this.halfLifeMillis = halfLifeMinutes * 60_000;
+        this.viewWeight = viewWeight;
+        this.completeWeight = completeWeight;
+        this.favoriteWeight = favoriteWeight;
+    }
+
+    /**
+     * Current trending stories, highest score first
+     */
+    public List<TrendingStory> getTrending() {
+        return trending;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        long now = System.currentTimeMillis();
+        sketch = new SpaceSavingSketch(capacity, halfLifeMillis, now);
+        long fromSequence = 0;
+        try {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT story_id, score, error, sequence, taken_at FROM trending_snapshots WHERE node_id = ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getLong(4),
+                            rs.getTimestamp(5).getTime()},
+                    eventLog.getNodeId());
+            for (Object[] row : rows) {
+                sketch.restore((Long) row[0], (Double) row[1], (Double) row[2], (Long) row[4]);
+                fromSequence = (Long) row[3];
+            }
+            log.info("Restored trending sketch with {} stories, replaying events from {}", rows.size(), fromSequence);
+        } catch (Exception e) {
+            // Without a snapshot the retained log is replayed, decay weighs old events down anyway
+            log.warn("Could not restore trending snapshot, rebuilding from the event log: {}", e.getMessage());
+        }
+        reader = eventLog.openReader(fromSequence);
+        update();
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.update-interval-ms:1000}")
+    public synchronized void update() {
+        if (reader == null) {
+            return;
+        }
+        List<InteractionEvent> events;
+        while (!(events = reader.poll(POLL_LIMIT)).isEmpty()) {
+            for (InteractionEvent event : events) {
+                double weight = weightOf(event);
+                if (weight > 0 && event.getStoryId() > 0) {
+                    sketch.add(event.getStoryId(), weight, event.getTimestamp());
+                }
+            }
+        }
+        publish();
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        List<SpaceSavingSketch.Entry> entries;
+        long sequence;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (reader == null) {
+                return;
+            }
+            entries = sketch.top(capacity, now);
+            sequence = reader.getNextSequence();
+        }
+
+        try {
+            Timestamp takenAt = new Timestamp(now);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM trending_snapshots WHERE node_id = ?", eventLog.getNodeId());
+                jdbcTemplate.batchUpdate("INSERT INTO trending_snapshots (node_id, story_id, score, error, sequence, taken_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", entries, entries.size(), (ps, entry) -> {
+                    ps.setString(1, eventLog.getNodeId());
+                    ps.setLong(2, entry.item());
+                    ps.setDouble(3, entry.score());
+                    ps.setDouble(4, entry.error());
+                    ps.setLong(5, sequence);
+                    ps.setTimestamp(6, takenAt);
+                });
+            });
+        } catch (Exception e) {
+            log.warn("Saving trending snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    private double weightOf(InteractionEvent event) {
+        return switch (event.getType()) {
+            case VIEW -> viewWeight;
+            case COMPLETE -> completeWeight;
+            case FAVORITE -> event.getValue() != 0 ? favoriteWeight : 0;
+            default -> 0;
+        };
+    }
+
+    // Resolve the top entries against the cached reader snapshots and keep only published stories. Failed lookups
+    // are not cached by the view cache, so a deleted story is remembered here instead of queried every second.
+    private void publish() {
+        long now = System.currentTimeMillis();
+        unresolvedUntil.values().removeIf(until -> until <= now);
+        List<TrendingStory> result = new ArrayList<>(topK);
+        for (SpaceSavingSketch.Entry entry : sketch.top(topK * 2, now)) {
+            if (result.size() == topK) {
+                break;
+            }
+            if (unresolvedUntil.containsKey(entry.item())) {
+                continue;
+            }
+            try {
+                StoryView story = storyViewService.getStoryView(entry.item());
+                if (story.getStatus() == Story.StoryStatus.PUBLISHED) {
+                    result.add(new TrendingStory(story.getId(), story.getTitle(), story.hasCoverImage(), entry.score()));
+                }
+            } catch (RuntimeException e) {
+                unresolvedUntil.put(entry.item(), now + UNRESOLVED_RETRY_MILLIS);
+                log.debug("Skipping trending story {}: {}", entry.item(), e.getMessage());
+            }
+        }
+        trending = List.copyOf(result);
+    }
+}
@@ -0,0 +1,158 @@
+package com.socialstory.service;
+
+import com.socialstory.model.InteractionEvent;
+import com.socialstory.util.HyperLogLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unique counts from HyperLogLog sketches: active users per day (login and reader events) and unique
+ * readers per story (views). Sketches are merged into hll_sketches by an event log consumer; each row
+ * also stores its current estimate, so single counts are a primary-key read and week/month windows merge
+ * at most 31 daily sketches.
+ */
+@Slf4j
+@Service
+public class UniqueCountService extends EventLogConsumer {
+
+    private static final String DAY_PREFIX = "dau:";
+    private static final String STORY_PREFIX = "story:";
+    private static final int SEED_CHUNK = 200;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TransactionTemplate transactionTemplate;
+
+    public UniqueCountService(InteractionEventLog eventLog, JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate) {
+        super("uniques", eventLog, jdbcTemplate, transactionTemplate);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.dashboard.event-rollup-interval-ms:10000}")
+    public void applyPending() {
+        super.applyPending();
+    }
+
+    @Override
+    protected void applyBatch(List<InteractionEvent> events) {
+        Map<String, HyperLogLog> sketches = new HashMap<>();
+        for (InteractionEvent event : events) {
+            if (event.getUserId() <= 0) {
+                continue;
+            }
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), zone);
+            sketches.computeIfAbsent(DAY_PREFIX + day, key -> new HyperLogLog()).add(event.getUserId());
+            if (event.getType() == InteractionEvent.Type.VIEW && event.getStoryId() > 0) {
+                sketches.computeIfAbsent(STORY_PREFIX + event.getStoryId(), key -> new HyperLogLog()).add(event.getUserId());
+            }
+        }
+        mergeAndSave(sketches);
+    }
+
+    /**
+     * Seed the sketches from existing interactions and recent sessions the first time the table is empty.
+     * Merging is idempotent, so nodes seeding at the same time do no harm.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM hll_sketches LIMIT 1) t", Integer.class);
+            if (existing != null && existing > 0) {
+                return;
+            }
+
+            Map<String, HyperLogLog> sketches = new HashMap<>();
+            jdbcTemplate.query("SELECT story_id, user_id FROM user_story_interactions", rs -> {
+                sketches.computeIfAbsent(STORY_PREFIX + rs.getLong(1), key -> new HyperLogLog()).add(rs.getLong(2));
+            });
+            jdbcTemplate.query("SELECT user_id, login_time FROM user_sessions WHERE login_time >= ?", rs -> {
+                LocalDate day = rs.getTimestamp(2).toLocalDateTime().toLocalDate();
+                sketches.computeIfAbsent(DAY_PREFIX + day, key -> new HyperLogLog()).add(rs.getLong(1));
+            }, Timestamp.valueOf(LocalDate.now(zone).minusDays(31).atStartOfDay()));
+
+            List<String> keys = new ArrayList<>(sketches.keySet());
+            for (int i = 0; i < keys.size(); i += SEED_CHUNK) {
+                Map<String, HyperLogLog> chunk = new HashMap<>();
+                keys.subList(i, Math.min(i + SEED_CHUNK, keys.size())).forEach(key -> chunk.put(key, sketches.get(key)));
+                transactionTemplate.executeWithoutResult(status -> mergeAndSave(chunk));
+            }
+            log.info("Seeded {} unique-count sketches from existing data", sketches.size());
+        } catch (Exception e) {
+            log.warn("Seeding unique-count sketches failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Estimated unique readers of the given stories, from the stored estimates
+     */
+    public Map<Long, Long> getUniqueReaders(Collection<Long> storyIds) {
+        if (storyIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> keys = storyIds.stream().map(id -> STORY_PREFIX + id).toList();
+        Map<Long, Long> readers = new HashMap<>();
+        jdbcTemplate.query("SELECT sketch_key, estimate FROM hll_sketches WHERE sketch_key IN (" + placeholders(keys.size()) + ")",
+                rs -> {
+                    readers.put(Long.parseLong(rs.getString(1).substring(STORY_PREFIX.length())), rs.getLong(2));
+                }, keys.toArray());
+        return readers;
+    }
+
+    /**
+     * Estimated distinct active users over the inclusive date range, merging the daily sketches
+     */
+    public long getActiveUsers(LocalDate from, LocalDate to) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            keys.add(DAY_PREFIX + day);
+        }
+        HyperLogLog union = new HyperLogLog();
+        jdbcTemplate.query("SELECT registers FROM hll_sketches WHERE sketch_key IN (" + placeholders(keys.size()) + ")",
+                rs -> {
+                    union.merge(HyperLogLog.fromBytes(rs.getBytes(1)));
+                }, keys.toArray());
+        return union.estimate();
+    }
+
+    // Existing rows are locked while merging, so nodes writing the same sketch merge one after the other
+    private void mergeAndSave(Map<String, HyperLogLog> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(sketches.keySet());
+        jdbcTemplate.query("SELECT sketch_key, registers FROM hll_sketches WHERE sketch_key IN (" + placeholders(keys.size()) + ") FOR UPDATE",
+                rs -> {
+                    sketches.get(rs.getString(1)).merge(HyperLogLog.fromBytes(rs.getBytes(2)));
+                }, keys.toArray());
+
+        jdbcTemplate.batchUpdate("INSERT INTO hll_sketches (sketch_key, registers, estimate) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE registers = VALUES(registers), estimate = VALUES(estimate)",
+                keys, keys.size(), (ps, key) -> {
+                    HyperLogLog sketch = sketches.get(key);
+                    ps.setString(1, key);
+                    ps.setBytes(2, sketch.toBytes());
+                    ps.setLong(3, sketch.estimate());
+                });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -4,14 +4,28 @@ package com.socialstory.service;
 import com.socialstory.model.UserAdmin;
 import com.socialstory.repository.UserAdminRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserAdminService {
 
+    public static final String CACHE_NAME = "adminRoleCache";
+
     private final UserAdminRepository userAdminRepository;
 
+    /**
+     * Check the admin role of a user. Decisions are cached for a short TTL (see CacheConfig)
+     * and evicted explicitly whenever the role of that email changes. Read-write, so the decision is read from
+     * the primary: the repository's own read-only transaction would go to a replica that may lag a role change.
+     */
+    @Cacheable(value = CACHE_NAME, key = "#email")
+    @Transactional
     public boolean isUserAdmin(String email) {
         return userAdminRepository.existsByEmailAndAccountType(email, UserAdmin.AccountType.ADMIN);
     }
@@ -19,4 +33,25 @@ public class UserAdminService {
     public UserAdmin findByEmail(String email) {
         return userAdminRepository.findByEmail(email).orElse(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Grant or revoke a role; the cached decision is dropped so the change applies on the next request
+     */
+    @Transactional
+    @CacheEvict(value = CACHE_NAME, key = "#email")
+    public UserAdmin setAccountType(String email, UserAdmin.AccountType accountType) {
+        UserAdmin userAdmin = userAdminRepository.findByEmail(email).orElseGet(() -> {
+            UserAdmin created = new UserAdmin();
+            created.setEmail(email);
+            return created;
+        });
+        userAdmin.setAccountType(accountType);
+        log.info("Set account type of {} to {}", email, accountType);
+        return userAdminRepository.save(userAdmin);
+    }
+
+    @CacheEvict(value = CACHE_NAME, key = "#email")
+    public void evictAdminRole(String email) {
+        log.debug("Evicted cached admin role for {}", email);
+    }
+}
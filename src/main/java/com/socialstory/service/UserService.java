@@ -1,11 +1,10 @@
 package com.socialstory.service;
 
+import com.socialstory.model.InteractionEvent;
+import com.socialstory.model.InteractionEventDTO;
 import com.socialstory.model.User;
-import com.socialstory.model.UserSession;
 import com.socialstory.model.UserStoryInteraction;
-import com.socialstory.repository.StoryRepository;
 import com.socialstory.repository.UserRepository;
-import com.socialstory.repository.UserSessionRepository;
 import com.socialstory.repository.UserStoryInteractionRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -18,7 +17,6 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,11 +26,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
-    private final UserSessionRepository userSessionRepository;
     private final UserStoryInteractionRepository userStoryInteractionRepository;
-    private final StoryRepository storyRepository;
+    private final InteractionEventLog interactionEventLog;
+    private final UserSessionTracker userSessionTracker;
+    private final DashboardRollupService dashboardRollupService;
     private final HttpServletRequest request;
-    private final UserAdminService userAdminService;
 
     @Transactional
     public User processOAuthUser(OAuth2AuthenticationToken authentication) {
@@ -90,175 +88,124 @@ public class UserService {
             user.setLastName(lastName);
             user.setPictureUrl(pictureUrl);
             user.setTotalVisits(1);
+            dashboardRollupService.adjustTotal(DashboardRollupService.TOTAL_USERS, 1);
             log.info("Created new user");
         }
 
         user = userRepository.save(user);
-        boolean isAdmin = userAdminService.isUserAdmin(user.getEmail());
 
-        log.info("Saved user with id={}, isAdmin={}", user.getId(), isAdmin);
+        log.info("Saved user with id={}", user.getId());
         return user;
     }
-    @Transactional
-    public UserSession startUserSession(User user, HttpSession httpSession) {
-        UserSession session = new UserSession();
-        session.setUser(user);
-        session.setLoginTime(LocalDateTime.now());
-        session.setIpAddress(request.getRemoteAddr());
-        session.setUserAgent(request.getHeader("User-Agent"));
+    /**
+     * Record a login without a database round trip: the user_sessions row is queued on UserSessionTracker
+     * and the LOGIN event appended to the event log
+     */
+    public void startUserSession(User user, HttpSession httpSession) {
+        String userAgent = request.getHeader("User-Agent");
 
         // Detect device type from user agent
-        String userAgent = request.getHeader("User-Agent").toLowerCase();
-        if (userAgent.contains("mobile") || userAgent.contains("android") || userAgent.contains("iphone")) {
-            session.setDeviceType("MOBILE");
-        } else if (userAgent.contains("tablet") || userAgent.contains("ipad")) {
-            session.setDeviceType("TABLET");
+        String agent = userAgent != null ? userAgent.toLowerCase() : "";
+        String deviceType;
+        if (agent.contains("mobile") || agent.contains("android") || agent.contains("iphone")) {
+            deviceType = "MOBILE";
+        } else if (agent.contains("tablet") || agent.contains("ipad")) {
+            deviceType = "TABLET";
         } else {
-            session.setDeviceType("DESKTOP");
+            deviceType = "DESKTOP";
         }
 
-        boolean isAdmin = userAdminService.isUserAdmin(user.getEmail());
-        httpSession.setAttribute("isAdmin", isAdmin);
-
-        return userSessionRepository.save(session);    }
-
-    @Transactional
-    public void endUserSession(UserSession session) {
-        session.setLogoutTime(LocalDateTime.now());
-        session.setSessionDuration(
-                java.time.Duration.between(session.getLoginTime(), session.getLogoutTime()).getSeconds()
-        );
-        userSessionRepository.save(session);
+        userSessionTracker.sessionStarted(httpSession, user.getId(), request.getRemoteAddr(), userAgent, deviceType);
+        interactionEventLog.append(InteractionEvent.of(InteractionEvent.Type.LOGIN, user.getId(), 0, 0, 0));
     }
 
-    @Transactional
-    public UserStoryInteraction recordStoryInteraction(User user, Long storyId, int pageNumber, boolean completed) {
-        Optional<UserStoryInteraction> existingInteraction =
-                userStoryInteractionRepository.findByUserIdAndStoryId(user.getId(), storyId);
-
-        if (existingInteraction.isPresent()) {
-            UserStoryInteraction interaction = existingInteraction.get();
-            interaction.setLastReadAt(LocalDateTime.now());
-            interaction.setReadCount(interaction.getReadCount() + 1);
-            interaction.setLastPageRead(Math.max(interaction.getLastPageRead(), pageNumber));
-
-            if (completed) {
-                interaction.setCompleted(true);
-            }
+    public void endUserSession(HttpSession httpSession) {
+        userSessionTracker.sessionEnded(httpSession);
+    }
 
-            return userStoryInteractionRepository.save(interaction);
-        } else {
-            UserStoryInteraction newInteraction = new UserStoryInteraction();
-            newInteraction.setUser(user);
-            newInteraction.setStory(storyRepository.findById(storyId).orElseThrow());
-            newInteraction.setReadCount(1);
-            newInteraction.setLastPageRead(pageNumber);
-            newInteraction.setCompleted(completed);
-            return userStoryInteractionRepository.save(newInteraction);
-        }
+    /**
+     * Record a view of a story without touching the database: the VIEW event is appended to the event log and
+     * InteractionEventApplier upserts the (user, story) interaction row in its next batch.
+     * Later events from the reader page are keyed by the same (user, story) pair, so no interaction id is needed.
+     */
+    public void recordStoryView(Long userId, Long storyId) {
+        interactionEventLog.append(InteractionEvent.of(InteractionEvent.Type.VIEW, userId, storyId, 0, 0));
     }
 
-    @Transactional
+    // Reader beacons are appended to the event log and applied to the interaction rows by InteractionEventApplier
     public void updateTimeSpent(Long interactionId, Long additionalSeconds) {
-        UserStoryInteraction interaction = userStoryInteractionRepository.findById(interactionId)
-                .orElseThrow(() -> new RuntimeException("Interaction not found"));
-
-        Long currentTime = interaction.getTimeSpent() != null ? interaction.getTimeSpent() : 0L;
-        interaction.setTimeSpent(currentTime + additionalSeconds);
-        userStoryInteractionRepository.save(interaction);
+        if (additionalSeconds != null && additionalSeconds > 0) {
+            interactionEventLog.append(InteractionEvent.forInteraction(InteractionEvent.Type.TIME, interactionId, additionalSeconds));
+        }
     }
 
-    @Transactional
     public void recordQuestionAnswered(Long interactionId, boolean correct) {
-        UserStoryInteraction interaction = userStoryInteractionRepository.findById(interactionId)
-                .orElseThrow(() -> new RuntimeException("Interaction not found"));
-
-        Integer currentAnswered = interaction.getQuestionsAnswered() != null ?
-                interaction.getQuestionsAnswered() : 0;
-        Integer currentCorrect = interaction.getQuestionsCorrect() != null ?
-                interaction.getQuestionsCorrect() : 0;
-
-        interaction.setQuestionsAnswered(currentAnswered + 1);
-
-        if (correct) {
-            interaction.setQuestionsCorrect(currentCorrect + 1);
-        }
-
-        userStoryInteractionRepository.save(interaction);
+        interactionEventLog.append(InteractionEvent.forInteraction(InteractionEvent.Type.ANSWER, interactionId, correct ? 1 : 0));
     }
 
-    @Transactional
     public void markStoryComplete(Long interactionId) {
-        UserStoryInteraction interaction = userStoryInteractionRepository.findById(interactionId)
-                .orElseThrow(() -> new RuntimeException("Interaction not found"));
-
-        interaction.setCompleted(true);
-        userStoryInteractionRepository.save(interaction);
+        interactionEventLog.append(InteractionEvent.forInteraction(InteractionEvent.Type.COMPLETE, interactionId, 0));
     }
 
     @Transactional
     public boolean toggleFavorite(Long interactionId) {
-        UserStoryInteraction interaction = userStoryInteractionRepository.findById(interactionId)
+        // Flip in place, then read back this transaction's own write
+        if (userStoryInteractionRepository.toggleFavorite(interactionId) == 0) {
+            throw new RuntimeException("Interaction not found");
+        }
+        boolean favorite = userStoryInteractionRepository.findFavoriteById(interactionId)
                 .orElseThrow(() -> new RuntimeException("Interaction not found"));
-
-        interaction.setFavorite(!interaction.isFavorite());
-        userStoryInteractionRepository.save(interaction);
-
-        return interaction.isFavorite();
+        interactionEventLog.append(InteractionEvent.forInteraction(InteractionEvent.Type.FAVORITE, interactionId, favorite ? 1 : 0));
+        return favorite;
     }
 
-    public Set<Long> getUnreadStoryIds(Long userId) {
-        List<UserStoryInteraction> interactions = userStoryInteractionRepository.findByUserId(userId);
-        Set<Long> readStoryIds = interactions.stream()
-                .map(interaction -> interaction.getStory().getId())
-                .collect(Collectors.toSet());
-
-        List<com.socialstory.model.Story> allStories = storyRepository.findAll();
-
-        Set<Long> allStoryIds = allStories.stream()
-                .map(com.socialstory.model.Story::getId)
-                .collect(Collectors.toSet());
-
-        // Remove read stories from all stories
-        allStoryIds.removeAll(readStoryIds);
-
-        return allStoryIds;
+    /**
+     * Append a batch of reader events for the reader's (user, story) interaction
+     */
+    public void recordStoryEvents(Long userId, Long storyId, List<InteractionEventDTO> events) {
+        interactionEventLog.appendAll(toLogEvents(events, userId, storyId, 0));
     }
 
-    public Long getStoryReadCount(Long storyId) {
-        return userStoryInteractionRepository.countUniqueReadersForStory(storyId);
+    /**
+     * Append a batch of reader events for an interaction id (pages rendered before story-keyed events)
+     */
+    public void applyInteractionEvents(Long interactionId, List<InteractionEventDTO> events) {
+        interactionEventLog.appendAll(toLogEvents(events, 0, 0, interactionId));
     }
 
-    public Long getActiveUsersForDate(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay().minusNanos(1);
-
-        return userSessionRepository.countSessionsBetween(startOfDay, endOfDay);
+    private List<InteractionEvent> toLogEvents(List<InteractionEventDTO> events, long userId, long storyId, long interactionId) {
+        List<InteractionEvent> logged = new ArrayList<>(events.size());
+        for (InteractionEventDTO event : events) {
+            if (event == null || event.getType() == null) {
+                continue;
+            }
+            switch (event.getType()) {
+                case TIME -> {
+                    if (event.getSeconds() != null && event.getSeconds() > 0) {
+                        logged.add(InteractionEvent.of(InteractionEvent.Type.TIME, userId, storyId, interactionId, event.getSeconds()));
+                    }
+                }
+                case ANSWER -> logged.add(InteractionEvent.of(InteractionEvent.Type.ANSWER, userId, storyId, interactionId,
+                        Boolean.TRUE.equals(event.getCorrect()) ? 1 : 0));
+                case COMPLETE -> logged.add(InteractionEvent.of(InteractionEvent.Type.COMPLETE, userId, storyId, interactionId, 0));
+                case FAVORITE -> {
+                    if (event.getFavorite() != null) {
+                        logged.add(InteractionEvent.of(InteractionEvent.Type.FAVORITE, userId, storyId, interactionId,
+                                event.getFavorite() ? 1 : 0));
+                    }
+                }
+            }
+        }
+        return logged;
     }
 
-    public Map<String, Object> getMetricsForAdminDashboard() {
-        Map<String, Object> metrics = new HashMap<>();
-
-        // Total users
-        metrics.put("totalUsers", userRepository.count());
-
-        // Active users today
-        metrics.put("activeTodayUsers", userSessionRepository.countTodaySessions());
-
-        // Top 5 most read stories
-        List<Long> topStoryIds = userStoryInteractionRepository.findMostReadStories();
-        metrics.put("topStories", topStoryIds.stream().limit(5).collect(Collectors.toList()));
-
-        // Top 5 most favorited stories
-        metrics.put("topFavorites", userStoryInteractionRepository.findMostFavoritedStories().stream().limit(5).collect(Collectors.toList()));
-
-        // Average session duration
-        Double avgSessionDuration = userSessionRepository.getAverageSessionDurationForUser(null);
-        metrics.put("avgSessionDuration", avgSessionDuration != null ? avgSessionDuration : 0.0);
-
-        return metrics;
+    @Transactional(readOnly = true)
+    public Set<Long> getUnreadStoryIds(Long userId) {
+        // Anti-join in the database instead of loading every interaction and every story
+        return userStoryInteractionRepository.findUnreadStoryIds(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getRecentActivities(int limit) {
         List<UserStoryInteraction> recentInteractions =
                 userStoryInteractionRepository.findRecentInteractions(limit);
@@ -0,0 +1,210 @@
+package com.socialstory.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the user_sessions lifecycle off the request path.
+ * Logins and logouts are queued and written in JDBC batches by a scheduled flush; rows are keyed by a hash of the
+ * HTTP session id, so a logout can close its row even before the login insert was flushed (starts go first).
+ * Sessions that simply expire are closed by the container's HttpSessionListener callback where one fires, and
+ * otherwise by the sweeper: it copies last access times of signed-in sessions from the Spring Session table in one
+ * joined UPDATE and closes every open row inactive for longer than the session timeout at its last activity.
+ */
+@Slf4j
+@Service
+public class UserSessionTracker implements HttpSessionListener {
+
+    private static final String INSERT_SQL = "INSERT IGNORE INTO user_sessions " +
+            "(user_id, session_key, login_time, last_seen_at, ip_address, user_agent, device_type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CLOSE_SQL = "UPDATE user_sessions SET logout_time = ?, " +
+            "session_duration = GREATEST(TIMESTAMPDIFF(SECOND, login_time, ?), 0) " +
+            "WHERE session_key = ? AND logout_time IS NULL";
+
+    // LAST_ACCESS_TIME is epoch millis; the datasource writes timestamps in UTC, so they are added to the UTC epoch
+    private static final String TOUCH_SQL = "UPDATE user_sessions us JOIN %s s ON us.session_key = SHA2(s.SESSION_ID, 256) " +
+            "SET us.last_seen_at = TIMESTAMPADD(MICROSECOND, s.LAST_ACCESS_TIME * 1000, '1970-01-01') " +
+            "WHERE s.PRINCIPAL_NAME IS NOT NULL AND us.logout_time IS NULL " +
+            "AND (us.last_seen_at IS NULL OR us.last_seen_at < TIMESTAMPADD(MICROSECOND, s.LAST_ACCESS_TIME * 1000, '1970-01-01'))";
+
+    // Rows written before last_seen_at existed have no known end: they are closed without a duration, so the
+    // rollups do not count them as zero-length sessions
+    private static final String CLOSE_ORPHANS_SQL = "UPDATE user_sessions " +
+            "SET logout_time = COALESCE(last_seen_at, login_time), " +
+            "session_duration = CASE WHEN last_seen_at IS NULL THEN NULL " +
+            "ELSE GREATEST(TIMESTAMPDIFF(SECOND, login_time, last_seen_at), 0) END " +
+            "WHERE logout_time IS NULL AND COALESCE(last_seen_at, login_time) < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean jdbcSessionStore;
+    private final String sessionTable;
+    private final Duration sessionTimeout;
+    private final int sweepBatchSize;
+
+    private final ConcurrentLinkedQueue<Start> starts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<End> ends = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong ended = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+
+    public UserSessionTracker(JdbcTemplate jdbcTemplate,
+                              @Value("${app.session.store:jdbc}") String sessionStore,
+                              @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String sessionTable,
+                              @Value("${spring.session.timeout:30m}") Duration sessionTimeout,
+                              @Value("${app.sessions.sweep-batch-size:1000}") int sweepBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcSessionStore = "jdbc".equals(sessionStore);
+        this.sessionTable = sessionTable;
+        this.sessionTimeout = sessionTimeout;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Queue the user_sessions row of a login; it is inserted by the next flush
+     */
+    public void sessionStarted(HttpSession httpSession, Long userId, String ipAddress, String userAgent, String deviceType) {
+        starts.add(new Start(sessionKey(httpSession.getId()), userId, LocalDateTime.now(), ipAddress, userAgent, deviceType));
+    }
+
+    /**
+     * Queue the close of the row started for this HTTP session (logout, invalidation or expiry)
+     */
+    public void sessionEnded(HttpSession httpSession) {
+        ends.add(new End(sessionKey(httpSession.getId()), LocalDateTime.now()));
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        sessionEnded(event.getSession());
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.flush-interval-ms:1000}")
+    public void flush() {
+        List<Start> startBatch = drain(starts);
+        if (!startBatch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, startBatch, startBatch.size(), (ps, start) -> {
+                    ps.setLong(1, start.userId());
+                    ps.setString(2, start.sessionKey());
+                    ps.setTimestamp(3, Timestamp.valueOf(start.loginTime()));
+                    ps.setTimestamp(4, Timestamp.valueOf(start.loginTime()));
+                    ps.setString(5, start.ipAddress());
+                    ps.setString(6, start.userAgent());
+                    ps.setString(7, start.deviceType());
+                });
+                started.addAndGet(startBatch.size());
+            } catch (Exception e) {
+                writeFailures.incrementAndGet();
+                starts.addAll(startBatch);
+                log.warn("Writing {} session starts failed, will retry: {}", startBatch.size(), e.getMessage());
+                return;
+            }
+        }
+
+        List<End> endBatch = drain(ends);
+        if (!endBatch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(CLOSE_SQL, endBatch, endBatch.size(), (ps, end) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(end.logoutTime()));
+                    ps.setTimestamp(2, Timestamp.valueOf(end.logoutTime()));
+                    ps.setString(3, end.sessionKey());
+                });
+                ended.addAndGet(endBatch.size());
+            } catch (Exception e) {
+                writeFailures.incrementAndGet();
+                ends.addAll(endBatch);
+                log.warn("Writing {} session ends failed, will retry: {}", endBatch.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Refresh last_seen_at of the sessions still in the shared store, then close every open row whose session
+     * has been inactive for longer than the timeout, at its last activity
+     */
+    @Scheduled(fixedDelayString = "${app.sessions.sweep-interval-ms:300000}", initialDelayString = "${app.sessions.sweep-interval-ms:300000}")
+    public void sweepExpiredSessions() {
+        try {
+            if (jdbcSessionStore) {
+                refreshLastSeen();
+            }
+            Timestamp inactiveSince = Timestamp.valueOf(LocalDateTime.now().minus(sessionTimeout));
+            int batch;
+            do {
+                batch = jdbcTemplate.update(CLOSE_ORPHANS_SQL, inactiveSince, sweepBatchSize);
+                expired.addAndGet(batch);
+            } while (batch == sweepBatchSize);
+        } catch (Exception e) {
+            log.warn("Sweeping expired user sessions failed: {}", e.getMessage());
+        }
+    }
+
+    private void refreshLastSeen() {
+        jdbcTemplate.update(TOUCH_SQL.formatted(sessionTable));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("started", started.get());
+        stats.put("ended", ended.get());
+        stats.put("expired", expired.get());
+        stats.put("pendingStarts", starts.size());
+        stats.put("pendingEnds", ends.size());
+        stats.put("writeFailures", writeFailures.get());
+        return stats;
+    }
+
+    static String sessionKey(String sessionId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sessionId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static <T> List<T> drain(ConcurrentLinkedQueue<T> queue) {
+        List<T> batch = new ArrayList<>();
+        T item;
+        while ((item = queue.poll()) != null) {
+            batch.add(item);
+        }
+        return batch;
+    }
+
+    private record Start(String sessionKey, long userId, LocalDateTime loginTime,
+                         String ipAddress, String userAgent, String deviceType) {
+    }
+
+    private record End(String sessionKey, LocalDateTime logoutTime) {
+    }
+}
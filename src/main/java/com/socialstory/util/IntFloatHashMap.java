@@ -0,0 +1,109 @@
+package com.socialstory.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int to float accumulator for non-negative int keys, in flat primitive arrays.
+ * Inserted keys are also kept in insertion order, so the map can be iterated and cleared in time proportional
+ * to its size rather than its capacity - one instance is meant to be reused across many accumulations.
+ * Not thread-safe.
+ */
+public class IntFloatHashMap {
+
+    private static final int FREE = -1;
+
+    private int[] keys;
+    private float[] values;
+    private int[] inserted;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntFloatHashMap(int expectedSize) {
+        allocate(IntIntHashMap.tableSizeFor(expectedSize));
+        inserted = new int[Math.max(expectedSize, 8)];
+    }
+
+    /**
+     * Add delta to the value of key, starting from zero for a new key
+     */
+    public void addTo(int key, float delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key must not be negative: " + key);
+        }
+        int slot = find(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            values[slot] = delta;
+            if (size == inserted.length) {
+                inserted = Arrays.copyOf(inserted, size * 2);
+            }
+            inserted[size] = key;
+            if (++size > resizeAt) {
+                rehash();
+            }
+            return;
+        }
+        values[slot] += delta;
+    }
+
+    public float get(int key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0f;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Key at position i in insertion order, 0 <= i < size()
+     */
+    public int keyAt(int i) {
+        return inserted[i];
+    }
+
+    public void clear() {
+        if (size > keys.length / 8) {
+            Arrays.fill(keys, FREE);
+        } else {
+            // Locate every slot before freeing any, freeing one would break the probe chains of the others
+            for (int i = 0; i < size; i++) {
+                inserted[i] = find(inserted[i]);
+            }
+            for (int i = 0; i < size; i++) {
+                keys[inserted[i]] = FREE;
+            }
+        }
+        size = 0;
+    }
+
+    private int find(int key) {
+        int slot = IntIntHashMap.mix(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        float[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, FREE);
+        values = new float[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity * 3 / 4;
+    }
+}
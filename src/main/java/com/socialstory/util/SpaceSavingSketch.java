@@ -0,0 +1,163 @@
+package com.socialstory.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Space-Saving heavy-hitter sketch over long item ids with exponential time decay.
+ * Keeps at most capacity counters in an indexed min-heap: a monitored item is incremented in place, an
+ * unmonitored one takes over the smallest counter and inherits its count as error. Any item whose decayed
+ * weight exceeds total/capacity is guaranteed to be monitored.
+ *
+ * Decay uses forward decay: a weight added at time t counts as w * e^(lambda (t - landmark)), so counters never
+ * have to be touched as time passes; the landmark is moved forward before the factors grow too large.
+ * Not thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    private static final double MAX_EXPONENT = 40;
+
+    private final int capacity;
+    private final double lambda;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final Counter[] heap;
+    private int size;
+    private long landmarkMillis;
+
+    public SpaceSavingSketch(int capacity, long halfLifeMillis, long nowMillis) {
+        this.capacity = capacity;
+        this.lambda = Math.log(2) / halfLifeMillis;
+        this.heap = new Counter[capacity];
+        this.landmarkMillis = nowMillis;
+    }
+
+    public void add(long item, double weight, long atMillis) {
+        double exponent = lambda * (atMillis - landmarkMillis);
+        if (exponent > MAX_EXPONENT) {
+            rescale(atMillis);
+            exponent = 0;
+        }
+        double scaled = weight * Math.exp(exponent);
+
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.count += scaled;
+            siftDown(counter.index);
+        } else if (size < capacity) {
+            counter = new Counter(item, scaled, 0);
+            counters.put(item, counter);
+            heap[size] = counter;
+            counter.index = size++;
+            siftUp(counter.index);
+        } else {
+            // Take over the smallest counter, its count becomes the new item's overestimation bound
+            Counter min = heap[0];
+            counters.remove(min.item);
+            min.item = item;
+            min.error = min.count;
+            min.count += scaled;
+            counters.put(item, min);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Restore a counter from a snapshot; score and error are decayed values as of atMillis
+     */
+    public void restore(long item, double score, double error, long atMillis) {
+        add(item, score, atMillis);
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.error = error * Math.exp(lambda * (atMillis - landmarkMillis));
+        }
+    }
+
+    /**
+     * The k items with the highest decayed scores as of nowMillis, highest first
+     */
+    public List<Entry> top(int k, long nowMillis) {
+        PriorityQueue<Counter> best = new PriorityQueue<>(Comparator.comparingDouble(c -> c.count));
+        for (int i = 0; i < size; i++) {
+            best.add(heap[i]);
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        double decay = Math.exp(-lambda * (nowMillis - landmarkMillis));
+        List<Entry> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Counter counter = best.poll();
+            result.add(0, new Entry(counter.item, counter.count * decay, counter.error * decay));
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rescale(long nowMillis) {
+        double factor = Math.exp(-lambda * (nowMillis - landmarkMillis));
+        for (int i = 0; i < size; i++) {
+            heap[i].count *= factor;
+            heap[i].error *= factor;
+        }
+        landmarkMillis = nowMillis;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    public record Entry(long item, double score, double error) {
+    }
+
+    private static class Counter {
+        long item;
+        double count;
+        double error;
+        int index;
+
+        Counter(long item, double count, double error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
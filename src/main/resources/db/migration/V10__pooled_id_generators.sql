@@ -0,0 +1,13 @@
+-- Pooled id blocks for StoryPage and Question: ids are handed out from memory in blocks of 50 so their inserts can be
+-- JDBC-batched, which IDENTITY columns prevent. Seeded above the current maximum plus one block, so no pooled id
+-- can collide with a row inserted through AUTO_INCREMENT before this migration.
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val      BIGINT      NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'story_pages', COALESCE(MAX(id), 0) + 100 FROM story_pages;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'questions', COALESCE(MAX(id), 0) + 100 FROM questions;
@@ -0,0 +1,4 @@
+-- Nodes now poll cache_invalidations by id, which the database assigns, instead of by created_at, which was written
+-- from the publishing node's clock. created_at is left to its CURRENT_TIMESTAMP(3) default and only drives purging;
+-- queued_at keeps the publishing node's clock for the propagation delay metric.
+ALTER TABLE cache_invalidations ADD COLUMN queued_at DATETIME(3) NULL AFTER origin_node;
@@ -0,0 +1,9 @@
+-- Site-wide totals for the admin dashboard, kept up to date by the services that create and delete users and
+-- stories, so the dashboard never counts the tables. Seeded once from the current row counts.
+CREATE TABLE IF NOT EXISTS dashboard_totals (
+    name  VARCHAR(32) NOT NULL PRIMARY KEY,
+    total BIGINT      NOT NULL
+);
+
+INSERT IGNORE INTO dashboard_totals (name, total) SELECT 'users', COUNT(*) FROM app_users;
+INSERT IGNORE INTO dashboard_totals (name, total) SELECT 'stories', COUNT(*) FROM stories;
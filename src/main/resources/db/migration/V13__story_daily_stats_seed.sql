@@ -0,0 +1,11 @@
+-- The story rollup only sees events logged after it was introduced, so the top-stories widget would start empty.
+-- Seed it once from the interactions read in the last 30 days (the default top-stories window), crediting each
+-- interaction's reads to the day it was last read. Skipped when the rollup already has rows.
+INSERT INTO story_daily_stats (story_id, day, views, completions, favorites, time_spent)
+SELECT usi.story_id, DATE(usi.last_read_at), SUM(usi.read_count), SUM(usi.completed = 1), SUM(usi.favorite = 1),
+       COALESCE(SUM(usi.time_spent), 0)
+FROM user_story_interactions usi
+WHERE usi.story_id IS NOT NULL
+  AND usi.last_read_at >= CURRENT_DATE - INTERVAL 29 DAY
+  AND NOT EXISTS (SELECT 1 FROM story_daily_stats)
+GROUP BY usi.story_id, DATE(usi.last_read_at);
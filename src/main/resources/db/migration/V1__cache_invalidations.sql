@@ -0,0 +1,10 @@
+-- Cross-node cache invalidation log, written by CacheInvalidationBus and polled by every node
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cache_name  VARCHAR(191) NOT NULL,
+    cache_key   VARCHAR(191) NULL,
+    key_type    CHAR(1)      NULL,
+    origin_node VARCHAR(64)  NOT NULL,
+    created_at  DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_cache_invalidations_created_at (created_at)
+);
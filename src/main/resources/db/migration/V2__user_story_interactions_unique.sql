@@ -0,0 +1,34 @@
+-- Merge duplicate (user_id, story_id) interactions created by concurrent first views into the oldest row
+UPDATE user_story_interactions k
+JOIN (SELECT user_id,
+             story_id,
+             MIN(id)                             AS keep_id,
+             MIN(first_read_at)                  AS first_read_at,
+             MAX(last_read_at)                   AS last_read_at,
+             SUM(read_count)                     AS read_count,
+             MAX(completed)                      AS completed,
+             MAX(last_page_read)                 AS last_page_read,
+             SUM(COALESCE(questions_answered, 0)) AS questions_answered,
+             SUM(COALESCE(questions_correct, 0))  AS questions_correct,
+             SUM(COALESCE(time_spent, 0))         AS time_spent,
+             MAX(favorite)                       AS favorite
+      FROM user_story_interactions
+      GROUP BY user_id, story_id
+      HAVING COUNT(*) > 1) d ON k.id = d.keep_id
+SET k.first_read_at      = d.first_read_at,
+    k.last_read_at       = d.last_read_at,
+    k.read_count         = d.read_count,
+    k.completed          = d.completed,
+    k.last_page_read     = d.last_page_read,
+    k.questions_answered = d.questions_answered,
+    k.questions_correct  = d.questions_correct,
+    k.time_spent         = d.time_spent,
+    k.favorite           = d.favorite;
+
+DELETE dup
+FROM user_story_interactions dup
+JOIN user_story_interactions k
+  ON k.user_id = dup.user_id AND k.story_id = dup.story_id AND k.id < dup.id;
+
+ALTER TABLE user_story_interactions
+    ADD CONSTRAINT uk_user_story_interactions_user_story UNIQUE (user_id, story_id);
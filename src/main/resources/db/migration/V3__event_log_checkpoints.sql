@@ -0,0 +1,7 @@
+-- Position up to which each consumer has applied a node's interaction event log, updated in the same
+-- transaction as the consumer's writes so every event is applied exactly once
+CREATE TABLE IF NOT EXISTS event_log_checkpoints (
+    consumer   VARCHAR(191) PRIMARY KEY,
+    position   BIGINT       NOT NULL,
+    updated_at DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+);
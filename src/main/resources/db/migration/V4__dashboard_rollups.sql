@@ -0,0 +1,31 @@
+-- Admin dashboard rollups, maintained incrementally by DashboardRollupService
+
+-- Per story and day, from the interaction event log
+CREATE TABLE IF NOT EXISTS story_daily_stats (
+    story_id    BIGINT NOT NULL,
+    day         DATE   NOT NULL,
+    views       INT    NOT NULL DEFAULT 0,
+    completions INT    NOT NULL DEFAULT 0,
+    favorites   INT    NOT NULL DEFAULT 0,
+    time_spent  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (story_id, day),
+    INDEX idx_story_daily_stats_day (day, story_id, views)
+);
+
+-- Site-wide per hour, from the interaction event log
+CREATE TABLE IF NOT EXISTS hourly_activity_stats (
+    hour        DATETIME NOT NULL PRIMARY KEY,
+    views       INT      NOT NULL DEFAULT 0,
+    completions INT      NOT NULL DEFAULT 0,
+    answers     INT      NOT NULL DEFAULT 0,
+    time_spent  BIGINT   NOT NULL DEFAULT 0
+);
+
+-- Site-wide per day, recomputed from user_sessions for the current and previous day
+CREATE TABLE IF NOT EXISTS daily_activity_stats (
+    day             DATE   NOT NULL PRIMARY KEY,
+    active_users    INT    NOT NULL DEFAULT 0,
+    sessions        INT    NOT NULL DEFAULT 0,
+    ended_sessions  INT    NOT NULL DEFAULT 0,
+    session_seconds BIGINT NOT NULL DEFAULT 0
+);
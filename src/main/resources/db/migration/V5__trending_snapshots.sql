@@ -0,0 +1,10 @@
+-- Periodic snapshot of each node's trending sketch, restored on restart before replaying the event log
+CREATE TABLE IF NOT EXISTS trending_snapshots (
+    node_id  VARCHAR(64) NOT NULL,
+    story_id BIGINT      NOT NULL,
+    score    DOUBLE      NOT NULL,
+    error    DOUBLE      NOT NULL,
+    sequence BIGINT      NOT NULL,
+    taken_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (node_id, story_id)
+);
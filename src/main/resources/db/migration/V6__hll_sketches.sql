@@ -0,0 +1,7 @@
+-- HyperLogLog sketches for unique counts: dau:<yyyy-MM-dd> (active users per day) and story:<id> (unique readers)
+CREATE TABLE IF NOT EXISTS hll_sketches (
+    sketch_key VARCHAR(64)     NOT NULL PRIMARY KEY,
+    registers  VARBINARY(3072) NOT NULL,
+    estimate   BIGINT          NOT NULL,
+    updated_at DATETIME(3)     NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+);
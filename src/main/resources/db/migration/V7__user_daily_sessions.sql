@@ -0,0 +1,10 @@
+-- Per-user daily session summary, kept when raw user_sessions rows are archived and purged
+CREATE TABLE IF NOT EXISTS user_daily_sessions (
+    user_id         BIGINT NOT NULL,
+    day             DATE   NOT NULL,
+    sessions        INT    NOT NULL,
+    ended_sessions  INT    NOT NULL,
+    session_seconds BIGINT NOT NULL,
+    PRIMARY KEY (user_id, day),
+    INDEX idx_user_daily_sessions_day (day)
+);
@@ -0,0 +1,7 @@
+-- Sessions are written asynchronously, so rows are matched by a hash of the HTTP session id instead of their row id.
+-- last_seen_at is copied from the session store by the sweeper, so expired sessions close at their last activity.
+ALTER TABLE user_sessions
+    ADD COLUMN session_key CHAR(64) NULL,
+    ADD COLUMN last_seen_at DATETIME(6) NULL,
+    ADD UNIQUE INDEX idx_user_sessions_session_key (session_key),
+    ADD INDEX idx_user_sessions_open (logout_time, login_time);
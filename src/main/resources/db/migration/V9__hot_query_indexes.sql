@@ -0,0 +1,34 @@
+-- Indexes for the repository queries on the request path; each is named after the query shape it serves.
+-- QueryPlanVerifier checks their plans at startup when app.query-plans.verify=true.
+
+-- Published and pending story lists: equality on status, then the sort column
+ALTER TABLE stories
+    ADD INDEX idx_stories_status_created_at (status, created_at),
+    ADD INDEX idx_stories_status_submitted_at (status, submitted_for_approval_at);
+
+-- Reader snapshot: pages of a story in reading order
+ALTER TABLE story_pages
+    ADD INDEX idx_story_pages_story_order (story_id, page_order);
+
+-- Questions of a page in id order (the story-wide query joins through story_pages)
+ALTER TABLE questions
+    ADD INDEX idx_questions_page_id (page_id, id);
+
+-- (user_id, story_id) is covered by uk_user_story_interactions_user_story; the reverse order serves per-story
+-- reader counts and unread-story lookups, last_read_at the activity feed
+ALTER TABLE user_story_interactions
+    ADD INDEX idx_usi_story_user (story_id, user_id),
+    ADD INDEX idx_usi_last_read_at (last_read_at),
+    ADD INDEX idx_usi_favorite_story (favorite, story_id);
+
+-- Login lookups
+ALTER TABLE app_users
+    ADD INDEX idx_app_users_email (email);
+
+-- Role checks resolve from the index alone
+ALTER TABLE user_admin
+    ADD INDEX idx_user_admin_email_type (email, account_type);
+
+-- Session range counts and distinct users per range, covering
+ALTER TABLE user_sessions
+    ADD INDEX idx_user_sessions_login_user (login_time, user_id);
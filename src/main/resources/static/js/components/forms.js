@@ -14,6 +14,7 @@ const StoryForms = {
         this.setupFormValidation();
         this.initializePageCount();
         this.setupFormSubmission();
+        this.setupAutosave();
     },
 
     initializePageCount() {
@@ -47,6 +48,177 @@ const StoryForms = {
         }
     },
 
+    /**
+     * Autosave on the edit page: edits to pages that already exist are sent as they happen, one page or
+     * question at a time, to the granular endpoints under the form's data-autosave-url. New pages, title,
+     * tags and cover still go with the full form submit.
+     */
+    autosave: {
+        baseUrl: null,
+        delay: 1000,
+        timers: new WeakMap(),
+        pending: new WeakMap(),
+        persistedPageIds: []
+    },
+
+    setupAutosave() {
+        const form = document.getElementById('storyForm');
+        if (!form || !form.dataset.autosaveUrl) return;
+
+        this.autosave.baseUrl = form.dataset.autosaveUrl;
+        this.autosave.persistedPageIds = this.currentPageIds();
+
+        form.addEventListener('input', (e) => this.onAutosaveEdit(e.target));
+        form.addEventListener('change', (e) => {
+            if (e.target.name === 'imageFile') {
+                this.savePageImage(e.target);
+            } else if (e.target.type === 'radio') {
+                this.onAutosaveEdit(e.target);
+            }
+        });
+    },
+
+    pageIdOf(element) {
+        const pageDiv = element.closest('.story-page');
+        const idInput = pageDiv?.querySelector('input[name$="].id"]:not([name*="questions["])');
+        return idInput && idInput.value ? idInput.value : null;
+    },
+
+    currentPageIds() {
+        return Array.from(document.querySelectorAll('.story-page'))
+            .map(page => this.pageIdOf(page))
+            .filter(id => id !== null);
+    },
+
+    onAutosaveEdit(target) {
+        if (!target.name || !this.pageIdOf(target)) return;
+
+        if (target.name.includes('.questions[')) {
+            const questionItem = target.closest('.question-item');
+            if (questionItem) {
+                this.scheduleAutosave(questionItem, () => this.saveQuestion(questionItem));
+            }
+        } else if (target.name.endsWith('.text') && target.tagName === 'TEXTAREA') {
+            this.scheduleAutosave(target, () => this.savePageText(target));
+        }
+    },
+
+    // Debounce per page or question, and never run two saves of the same element concurrently
+    scheduleAutosave(key, save) {
+        clearTimeout(this.autosave.timers.get(key));
+        this.autosave.timers.set(key, setTimeout(() => {
+            const previous = this.autosave.pending.get(key) || Promise.resolve();
+            const next = previous.catch(() => {}).then(save);
+            this.autosave.pending.set(key, next);
+        }, this.autosave.delay));
+    },
+
+    async sendAutosave(path, options) {
+        this.showAutosaveStatus('Saving…');
+        try {
+            const response = await fetch(this.autosave.baseUrl + path, options);
+            if (!response.ok) {
+                throw new Error(`HTTP ${response.status}`);
+            }
+            this.showAutosaveStatus('All changes saved');
+            return response.status === 204 ? null : response.json();
+        } catch (error) {
+            console.error('Autosave failed:', error);
+            this.showAutosaveStatus('Autosave failed - use Save Changes', true);
+            throw error;
+        }
+    },
+
+    jsonRequest(method, body) {
+        return {
+            method,
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify(body)
+        };
+    },
+
+    savePageText(textArea) {
+        const text = textArea.value.trim();
+        if (!text) return Promise.resolve();
+        return this.sendAutosave(`/pages/${this.pageIdOf(textArea)}`, this.jsonRequest('PATCH', { text }));
+    },
+
+    async saveQuestion(questionItem) {
+        const field = (suffix) => questionItem.querySelector(`[name$="${suffix}"]`);
+        const idInput = field('].id');
+        const checked = questionItem.querySelector('input[type="radio"]:checked');
+        const question = {
+            id: idInput && idInput.value ? Number(idInput.value) : null,
+            text: field('].text')?.value.trim(),
+            option1: field('].option1')?.value.trim(),
+            option2: field('].option2')?.value.trim(),
+            correctOptionIndex: checked ? Number(checked.value) : null
+        };
+
+        // Only complete questions are saved, the full submit validates the rest
+        if (!question.text || !question.option1 || !question.option2 || question.correctOptionIndex === null) return;
+
+        const saved = await this.sendAutosave(`/pages/${this.pageIdOf(questionItem)}/questions`,
+            this.jsonRequest('PUT', question));
+        if (saved && idInput) {
+            idInput.value = saved.id;
+        }
+    },
+
+    deleteSavedQuestion(questionItem) {
+        const idInput = questionItem.querySelector('input[name$="].id"]');
+        const pageId = this.pageIdOf(questionItem);
+        if (!this.autosave.baseUrl || !pageId || !idInput || !idInput.value) return;
+
+        clearTimeout(this.autosave.timers.get(questionItem));
+        const previous = this.autosave.pending.get(questionItem) || Promise.resolve();
+        previous.catch(() => {}).then(() =>
+            this.sendAutosave(`/pages/${pageId}/questions/${idInput.value}`, { method: 'DELETE' })
+        ).catch(() => {});
+    },
+
+    async savePageImage(input) {
+        const pageId = this.pageIdOf(input);
+        if (!this.autosave.baseUrl || !pageId || !input.files || !input.files[0]) return;
+        if (input.files[0].size > 5 * 1024 * 1024) return;
+
+        const body = new FormData();
+        body.append('imageFile', input.files[0]);
+        try {
+            const saved = await this.sendAutosave(`/pages/${pageId}/image`, { method: 'POST', body });
+            // Uploaded already: keep the preview but don't send the file again with the full form
+            input.value = '';
+            const current = input.closest('.story-page')?.querySelector('img[src*="/stories/image/"]');
+            if (current && saved) {
+                current.src = saved.imageUrl;
+            }
+        } catch (error) {
+            // Left in the input, the full submit uploads it
+        }
+    },
+
+    // Saved pages that were only moved around get their new order saved right away
+    savePageOrderIfReordered() {
+        if (!this.autosave.baseUrl) return;
+        const pageIds = this.currentPageIds();
+        const persisted = this.autosave.persistedPageIds;
+        const samePages = pageIds.length === persisted.length && pageIds.every(id => persisted.includes(id));
+        const reordered = pageIds.some((id, index) => id !== persisted[index]);
+        if (samePages && reordered && pageIds.length === document.querySelectorAll('.story-page').length) {
+            this.sendAutosave('/pages/order', this.jsonRequest('PATCH', pageIds.map(Number)))
+                .then(() => { this.autosave.persistedPageIds = pageIds; })
+                .catch(() => {});
+        }
+    },
+
+    showAutosaveStatus(message, isError = false) {
+        const status = document.getElementById('autosaveStatus');
+        if (!status) return;
+        status.textContent = message;
+        status.classList.toggle('text-danger', isError);
+        status.classList.toggle('text-muted', !isError);
+    },
+
     setupImagePreviews() {
         // Cover image preview
         const coverInput = document.querySelector('input[name="coverImageFile"]');
@@ -295,6 +467,8 @@ const StoryForms = {
             // Update question indices
             this.updateQuestionIndices(page, index);
         });
+
+        this.savePageOrderIfReordered();
     },
 
     updateQuestionIndices(pageElement, pageIndex) {
@@ -416,6 +590,8 @@ const StoryForms = {
         const questionItem = button.closest('.question-item');
         if (!questionItem) return;
 
+        this.deleteSavedQuestion(questionItem);
+
         // Simple fade-out effect
         questionItem.style.transition = 'opacity 0.3s ease';
         questionItem.style.opacity = '0';
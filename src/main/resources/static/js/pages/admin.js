@@ -12,6 +12,57 @@ const Admin = {
         this.initializeCharts();
         this.loadSavedTab();
         this.handleSettingsForm();
+        this.setupLiveMetrics();
+    },
+
+    // Live metrics: one shared server-side computation pushed to every open tab over SSE
+    live: { reads: 0, completions: 0, sessions: 0 },
+
+    setupLiveMetrics() {
+        if (!document.getElementById('liveMetrics') || typeof EventSource === 'undefined') return;
+
+        const source = new EventSource('/admin/api/live');
+
+        source.addEventListener('snapshot', (e) => {
+            const data = JSON.parse(e.data);
+            this.live = { reads: data.reads, completions: data.completions, sessions: data.sessions };
+            this.renderLiveTotals();
+            this.renderLiveTopStories(data.topStories);
+        });
+
+        source.addEventListener('delta', (e) => {
+            const delta = JSON.parse(e.data);
+            ['reads', 'completions', 'sessions'].forEach(key => {
+                if (delta[key]) this.live[key] += delta[key];
+            });
+            this.renderLiveTotals();
+            if (delta.topStories) this.renderLiveTopStories(delta.topStories);
+        });
+
+        // EventSource reconnects by itself; the server sends a fresh snapshot on reconnect
+        source.onerror = () => console.warn('Live metrics stream interrupted, reconnecting...');
+    },
+
+    renderLiveTotals() {
+        document.getElementById('liveReads').textContent = this.live.reads;
+        document.getElementById('liveCompletions').textContent = this.live.completions;
+        document.getElementById('liveSessions').textContent = this.live.sessions;
+    },
+
+    renderLiveTopStories(stories) {
+        const list = document.getElementById('liveTopStories');
+        if (!list || !stories) return;
+
+        list.innerHTML = '';
+        stories.forEach(story => {
+            const item = document.createElement('li');
+            const link = document.createElement('a');
+            link.href = `/stories/view/${story.id}`;
+            link.textContent = story.title;
+            item.appendChild(link);
+            item.append(` (${story.reads})`);
+            list.appendChild(item);
+        });
     },
 
     setupTabNavigation() {
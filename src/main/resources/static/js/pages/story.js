@@ -9,9 +9,11 @@ const Story = {
     pageQuestions: [],
     questionsAnswered: new Set(),
     currentQuestionIndex: 0,
-    interactionId: null,
-    startTime: Date.now(),
-    lastUpdateTime: Date.now(),
+    eventsUrl: null,
+    pendingEvents: [],
+    visibleSince: null,
+    flushTimer: null,
+    completionRecorded: false,
 
     // DOM element cache
     elements: {
@@ -145,26 +147,54 @@ const Story = {
 
     setupMetricsTracking() {
         const interactionData = document.getElementById('interactionData');
-        this.interactionId = interactionData ? interactionData.dataset.interactionId : null;
+        // Events are keyed by the reader's (user, story) pair, the server knows the user from the session
+        this.eventsUrl = interactionData ? `/api/interactions/story/${interactionData.dataset.storyId}/events` : null;
 
-        if (this.interactionId) {
-            // Update time spent every 30 seconds
-            setInterval(() => this.updateTimeSpent(), 30000);
+        if (this.eventsUrl) {
+            // Reading time only counts while the tab is visible; events are buffered and sent in batches
+            if (document.visibilityState === 'visible') {
+                this.resumeTracking();
+            }
 
-            // Update on page visibility change
             document.addEventListener('visibilitychange', () => {
                 if (document.visibilityState === 'hidden') {
-                    this.updateTimeSpent();
+                    this.pauseTracking();
+                    this.flushEvents();
+                } else {
+                    this.resumeTracking();
                 }
             });
 
-            // Update on page unload
-            window.addEventListener('beforeunload', () => {
-                this.updateTimeSpent();
+            // pagehide also fires on mobile and for pages entering the back/forward cache
+            window.addEventListener('pagehide', () => {
+                this.pauseTracking();
+                this.flushEvents();
             });
         }
     },
 
+    resumeTracking() {
+        if (this.visibleSince === null) {
+            this.visibleSince = Date.now();
+        }
+        // Safety flush for long reading sessions, stopped while the tab is hidden
+        if (!this.flushTimer) {
+            this.flushTimer = setInterval(() => {
+                this.recordTimeSpent();
+                this.flushEvents();
+            }, 120000);
+        }
+    },
+
+    pauseTracking() {
+        this.recordTimeSpent();
+        this.visibleSince = null;
+        if (this.flushTimer) {
+            clearInterval(this.flushTimer);
+            this.flushTimer = null;
+        }
+    },
+
     loadQuestions() {
         // Load questions from global variable set by Thymeleaf
         if (typeof questionsByPage !== 'undefined') {
@@ -456,39 +486,49 @@ const Story = {
     },
 
     // Metrics tracking
-    updateTimeSpent() {
-        if (!this.interactionId) return;
+    recordTimeSpent() {
+        if (!this.eventsUrl || this.visibleSince === null) return;
 
         const now = Date.now();
-        const timeSinceLastUpdate = Math.floor((now - this.lastUpdateTime) / 1000);
-
-        if (timeSinceLastUpdate > 2) {
-            fetch(`/api/interactions/${this.interactionId}/time`, {
-                method: 'POST',
-                headers: { 'Content-Type': 'application/json' },
-                body: JSON.stringify({ seconds: timeSinceLastUpdate })
-            }).catch(error => console.error('Failed to update time spent:', error));
-
-            this.lastUpdateTime = now;
+        const seconds = Math.floor((now - this.visibleSince) / 1000);
+        if (seconds > 0) {
+            this.pendingEvents.push({ type: 'TIME', seconds: seconds });
+            this.visibleSince += seconds * 1000;
         }
     },
 
     recordQuestionAnswer(correct) {
-        if (!this.interactionId) return;
+        if (!this.eventsUrl) return;
 
-        fetch(`/api/interactions/${this.interactionId}/question`, {
-            method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
-            body: JSON.stringify({ correct: correct })
-        }).catch(error => console.error('Failed to record question answer:', error));
+        this.pendingEvents.push({ type: 'ANSWER', correct: correct });
     },
 
     recordStoryCompletion() {
-        if (!this.interactionId) return;
+        if (!this.eventsUrl || this.completionRecorded) return;
+
+        this.completionRecorded = true;
+        this.pendingEvents.push({ type: 'COMPLETE' });
+    },
+
+    flushEvents() {
+        if (!this.eventsUrl || this.pendingEvents.length === 0) return;
+
+        const events = this.pendingEvents;
+        this.pendingEvents = [];
 
-        fetch(`/api/interactions/${this.interactionId}/complete`, {
-            method: 'POST'
-        }).catch(error => console.error('Failed to record completion:', error));
+        const url = this.eventsUrl;
+        const body = JSON.stringify(events);
+
+        // sendBeacon survives the page being hidden or unloaded; fall back to a keepalive fetch
+        if (navigator.sendBeacon && navigator.sendBeacon(url, new Blob([body], { type: 'application/json' }))) {
+            return;
+        }
+        fetch(url, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: body,
+            keepalive: true
+        }).catch(error => console.error('Failed to send reading events:', error));
     }
 };
 
@@ -0,0 +1,136 @@
+package com.socialstory;
+
+import com.socialstory.model.Question;
+import com.socialstory.model.SessionUser;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryPage;
+import com.socialstory.model.User;
+import com.socialstory.repository.StoryRepository;
+import com.socialstory.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Base for tests that need the whole application on a real MySQL: Flyway migrations, the JDBC session store and
+ * MySQL-specific SQL (upserts, DELETE ... LIMIT, EXPLAIN) cannot be checked against an embedded database.
+ * Skipped where no Docker daemon is available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+
+    // One container for all test classes, so the cached application context always points at a running database
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("serverTimezone", "UTC")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    static {
+        MYSQL.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected StoryRepository storyRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    private SessionRepository<? extends Session> sessionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected User saveUser() {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName("Reader");
+        user.setOauthId(UUID.randomUUID().toString());
+        return userRepository.save(user);
+    }
+
+    /**
+     * Save a story with numbered pages, each with the given number of questions
+     */
+    protected Story saveStory(Story.StoryStatus status, int pages, int questionsPerPage) {
+        Story story = new Story();
+        story.setTitle("Story " + UUID.randomUUID());
+        story.setTags("test");
+        story.setStatus(status);
+        for (int p = 1; p <= pages; p++) {
+            StoryPage page = new StoryPage();
+            page.setText("Page " + p);
+            page.setPageOrder(p);
+            page.setStory(story);
+            for (int q = 1; q <= questionsPerPage; q++) {
+                Question question = new Question();
+                question.setText("Question " + q + " of page " + p);
+                question.setOption1("Yes");
+                question.setOption2("No");
+                question.setCorrectOptionIndex(0);
+                question.setPage(page);
+                page.getQuestions().add(question);
+            }
+            story.getPages().add(page);
+        }
+        return storyRepository.save(story);
+    }
+
+    /**
+     * A stored HTTP session of the given user, as the cookie the browser would send
+     */
+    protected Cookie sessionOf(User user, boolean admin) {
+        return sessionCookie(sessionRepository, SessionUser.from(user, admin));
+    }
+
+    private static <S extends Session> Cookie sessionCookie(SessionRepository<S> repository, SessionUser user) {
+        S session = repository.createSession();
+        session.setAttribute("currentUser", user);
+        repository.save(session);
+        return new Cookie("SESSION", Base64.getEncoder().encodeToString(session.getId().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Empty the Spring caches and the Hibernate second-level cache, so the next request takes the cold path
+     */
+    protected void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        entityManagerFactory.getCache().evictAll();
+    }
+}
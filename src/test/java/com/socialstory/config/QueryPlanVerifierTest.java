@@ -0,0 +1,92 @@
+package com.socialstory.config;
+
+import com.socialstory.MySqlIntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the hot queries against the migrated schema with enough analyzed rows that the optimizer prefers
+ * indexes where they exist: a missing or unusable index shows up as a full scan or a filesort and fails here.
+ */
+class QueryPlanVerifierTest extends MySqlIntegrationTest {
+
+    private static final int STORIES = 300;
+    private static final int PAGES_PER_STORY = 5;
+    private static final int USERS = 400;
+
+    @Test
+    void hotQueriesUseIndexes() {
+        seed();
+        for (String table : List.of("stories", "story_pages", "questions", "user_story_interactions", "app_users",
+                "user_admin", "user_sessions")) {
+            jdbcTemplate.queryForList("ANALYZE TABLE " + table);
+        }
+
+        assertThat(new QueryPlanVerifier(jdbcTemplate, true).findProblems()).isEmpty();
+    }
+
+    private void seed() {
+        Instant now = Instant.now();
+        List<Object[]> stories = new ArrayList<>();
+        for (int i = 0; i < STORIES; i++) {
+            String status = i % 3 == 0 ? "DRAFT" : i % 3 == 1 ? "PENDING" : "PUBLISHED";
+            Timestamp createdAt = Timestamp.from(now.minus(i, ChronoUnit.HOURS));
+            stories.add(new Object[]{"Plan story " + i, "test", status, createdAt, createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stories (title, tags, status, created_at, submitted_for_approval_at, image_migrated) "
+                + "VALUES (?, ?, ?, ?, ?, false)", stories);
+        List<Long> storyIds = jdbcTemplate.queryForList("SELECT id FROM stories", Long.class);
+
+        long pageId = reserveIds("story_pages", storyIds.size() * PAGES_PER_STORY);
+        long questionId = reserveIds("questions", 2L * storyIds.size() * PAGES_PER_STORY);
+        List<Object[]> pages = new ArrayList<>();
+        List<Object[]> questions = new ArrayList<>();
+        for (Long storyId : storyIds) {
+            for (int order = 1; order <= PAGES_PER_STORY; order++, pageId++) {
+                pages.add(new Object[]{pageId, "Page " + order, order, storyId});
+                questions.add(new Object[]{questionId++, "Question", 0, pageId});
+                questions.add(new Object[]{questionId++, "Another question", 1, pageId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO story_pages (id, text, page_order, story_id, image_migrated) "
+                + "VALUES (?, ?, ?, ?, false)", pages);
+        jdbcTemplate.batchUpdate("INSERT INTO questions (id, text, option1, option2, correct_option_index, page_id) "
+                + "VALUES (?, ?, 'Yes', 'No', ?, ?)", questions);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"plan-reader-" + i + "-" + now.toEpochMilli() + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO app_users (email, total_visits) VALUES (?, 0)", users);
+        jdbcTemplate.update("INSERT INTO user_admin (email, account_type, created_at) "
+                + "SELECT email, 'USER', NOW() FROM app_users WHERE email NOT IN (SELECT email FROM user_admin)");
+
+        // Each reader has read a few stories and logged in a few times
+        jdbcTemplate.update("INSERT IGNORE INTO user_story_interactions "
+                + "(user_id, story_id, first_read_at, last_read_at, read_count, completed, last_page_read, favorite) "
+                + "SELECT u.id, s.id, NOW() - INTERVAL (u.id + s.id) MINUTE, NOW() - INTERVAL (u.id + s.id) MINUTE, "
+                + "1, false, 1, (u.id + s.id) % 7 = 0 "
+                + "FROM app_users u JOIN stories s ON (u.id + s.id) % 50 = 0");
+        jdbcTemplate.update("INSERT INTO user_sessions (user_id, login_time, session_duration) "
+                + "SELECT u.id, NOW() - INTERVAL (u.id * 7 + d.n) HOUR, 600 "
+                + "FROM app_users u JOIN (SELECT 1 AS n UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4) d");
+    }
+
+    /**
+     * Claim a range of ids past every block the pooled generator (V10) has handed out, and return its first id
+     */
+    private long reserveIds(String sequenceName, long count) {
+        long first = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class, sequenceName) + 1000;
+        jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ?",
+                first + count + 1000, sequenceName);
+        return first;
+    }
+}
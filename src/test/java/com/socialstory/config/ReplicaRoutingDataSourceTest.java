@@ -0,0 +1,134 @@
+package com.socialstory.config;
+
+import com.socialstory.config.ReadReplicaConfig.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing decisions of the replica router, with replicas whose lag probes are answered by mocks
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_SECONDS = 2;
+
+    private final HikariDataSource primary = mock(HikariDataSource.class);
+    private final HikariDataSource replica0 = mock(HikariDataSource.class);
+    private final HikariDataSource replica1 = mock(HikariDataSource.class);
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() {
+        router = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1), MAX_LAG_SECONDS);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writesAndNonTransactionalWorkUseThePrimary() throws SQLException {
+        lag(replica0, 0L);
+        lag(replica1, 0L);
+        router.probe();
+
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReadReplicaConfig.PRIMARY);
+        inTransaction(false);
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReadReplicaConfig.PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionsRotateOverHealthyReplicas() throws SQLException {
+        lag(replica0, 0L);
+        lag(replica1, 1L);
+        router.probe();
+
+        inTransaction(true);
+        assertThat(List.of(router.determineCurrentLookupKey(), router.determineCurrentLookupKey()))
+                .containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    void laggingReplicasAreSkippedUntilTheyCatchUp() throws SQLException {
+        lag(replica0, MAX_LAG_SECONDS + 1);
+        lag(replica1, 0L);
+        router.probe();
+
+        inTransaction(true);
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(1);
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(1);
+
+        lag(replica1, MAX_LAG_SECONDS + 1);
+        router.probe();
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReadReplicaConfig.PRIMARY);
+
+        lag(replica0, MAX_LAG_SECONDS);
+        router.probe();
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(0);
+    }
+
+    @Test
+    void unreachableOrStoppedReplicasFallBackToThePrimary() throws SQLException {
+        when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+        lag(replica1, null);
+        router.probe();
+
+        inTransaction(true);
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReadReplicaConfig.PRIMARY);
+        assertThat(router.getStatistics()).containsEntry("replica-0", Map.of("healthy", false, "lagSeconds", -1L));
+    }
+
+    @Test
+    void serversWithoutShowReplicaStatusAreProbedWithTheOldSyntax() throws SQLException {
+        ResultSet status = mock(ResultSet.class);
+        when(status.next()).thenReturn(true);
+        when(status.getLong("Seconds_Behind_Master")).thenReturn(0L);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenThrow(new SQLException("You have an error in your SQL syntax"));
+        when(statement.executeQuery("SHOW SLAVE STATUS")).thenReturn(status);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(replica0.getConnection()).thenReturn(connection);
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+        router.probe();
+
+        inTransaction(true);
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(0);
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    /**
+     * Answer the replica's status query with the given lag, or with a null lag (replication stopped)
+     */
+    private static void lag(HikariDataSource replica, Long seconds) throws SQLException {
+        ResultSet status = mock(ResultSet.class);
+        when(status.next()).thenReturn(true);
+        when(status.getLong(anyString())).thenReturn(seconds != null ? seconds : 0L);
+        when(status.wasNull()).thenReturn(seconds == null);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(status);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(replica.getConnection()).thenReturn(connection);
+    }
+}
@@ -0,0 +1,135 @@
+package com.socialstory.config;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryPage;
+import com.socialstory.model.User;
+import com.socialstory.model.UserAdmin;
+import com.socialstory.service.CustomOAuth2UserService;
+import com.socialstory.service.UserAdminService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.OAuth2LoginRequestPostProcessor;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Holds every @SqlBudget endpoint to its budget, on cold caches (the worst case) and, for cached reads, warm ones.
+ * A query added to one of these paths fails the build here instead of only logging a warning in production.
+ */
+class SqlBudgetTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Test
+    void storyListStaysWithinBudget() throws Exception {
+        saveStory(Story.StoryStatus.PUBLISHED, 2, 1);
+        User reader = saveUser();
+
+        clearCaches();
+        assertWithinBudget(get("/stories"));
+        assertWithinBudget(get("/stories").cookie(sessionOf(reader, false)));
+    }
+
+    @Test
+    void storyViewStaysWithinBudget() throws Exception {
+        Story story = saveStory(Story.StoryStatus.PUBLISHED, 3, 2);
+        User reader = saveUser();
+
+        clearCaches();
+        assertWithinBudget(get("/stories/view/{id}", story.getId()));
+        assertThat(assertWithinBudget(get("/stories/view/{id}", story.getId()).cookie(sessionOf(reader, false))))
+                .as("statements of a view served from the snapshot cache").isZero();
+    }
+
+    @Test
+    void editorStaysWithinBudget() throws Exception {
+        Story story = saveStory(Story.StoryStatus.PUBLISHED, 3, 2);
+        StoryPage page = story.getPages().get(1);
+
+        clearCaches();
+        assertWithinBudget(get("/stories/edit/{id}", story.getId()).with(oauth2Login()));
+        assertWithinBudget(patch("/stories/edit/{storyId}/pages/{pageId}", story.getId(), page.getId())
+                .with(oauth2Login())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\": \"Edited text\"}"));
+
+        clearCaches();
+        assertWithinBudget(put("/stories/edit/{storyId}/pages/{pageId}/questions", story.getId(), page.getId())
+                .with(oauth2Login())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\": \"New question\", \"option1\": \"Yes\", \"option2\": \"No\", \"correctOptionIndex\": 1}"));
+        assertWithinBudget(put("/stories/edit/{storyId}/pages/{pageId}/questions", story.getId(), page.getId())
+                .with(oauth2Login())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": " + page.getQuestions().get(0).getId()
+                        + ", \"text\": \"Edited question\", \"option1\": \"Yes\", \"option2\": \"No\", \"correctOptionIndex\": 0}"));
+    }
+
+    @Test
+    void storyCreationStaysWithinBudget() throws Exception {
+        assertWithinBudget(multipart("/stories/create")
+                .with(oauth2Login())
+                .param("title", "New story")
+                .param("tags", "test")
+                .param("pages[0].text", "First page")
+                .param("pages[0].pageOrder", "0")
+                .param("pages[0].questions[0].text", "First question")
+                .param("pages[0].questions[0].option1", "Yes")
+                .param("pages[0].questions[0].option2", "No")
+                .param("pages[0].questions[0].correctOptionIndex", "0")
+                .param("pages[1].text", "Second page")
+                .param("pages[1].pageOrder", "1")
+                .param("pages[1].questions[0].text", "Second question")
+                .param("pages[1].questions[0].option1", "Yes")
+                .param("pages[1].questions[0].option2", "No")
+                .param("pages[1].questions[0].correctOptionIndex", "1"));
+    }
+
+    @Test
+    void adminPagesStayWithinBudget() throws Exception {
+        saveStory(Story.StoryStatus.PENDING, 1, 0);
+        String email = UUID.randomUUID() + "@example.com";
+        userAdminService.setAccountType(email, UserAdmin.AccountType.ADMIN);
+
+        clearCaches();
+        assertWithinBudget(get("/admin/approvals").with(admin(email)));
+        assertWithinBudget(get("/admin").with(admin(email)));
+    }
+
+    private static OAuth2LoginRequestPostProcessor admin(String email) {
+        return oauth2Login()
+                .attributes(attributes -> attributes.put("email", email))
+                .authorities(new SimpleGrantedAuthority(CustomOAuth2UserService.ROLE_ADMIN));
+    }
+
+    /**
+     * Perform the request, check it succeeded and ran no more statements than its endpoint's budget
+     */
+    private int assertWithinBudget(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        MockHttpServletRequest request = result.getRequest();
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+
+        assertThat(result.getResolvedException()).as("exception of %s", endpoint).isNull();
+        assertThat(result.getResponse().getStatus()).as("status of %s", endpoint).isBetween(200, 399);
+        Integer budget = (Integer) request.getAttribute(SqlStatementConfig.BUDGET_ATTRIBUTE);
+        assertThat(budget).as("@SqlBudget of %s", endpoint).isNotNull();
+        SqlStatementCounter.Stats stats = (SqlStatementCounter.Stats) request.getAttribute(SqlStatementConfig.STATS_ATTRIBUTE);
+        assertThat(stats.getStatements()).as("SQL statements of %s", endpoint).isLessThanOrEqualTo(budget);
+        return stats.getStatements();
+    }
+}
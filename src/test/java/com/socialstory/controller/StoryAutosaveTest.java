@@ -0,0 +1,51 @@
+package com.socialstory.controller;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryPage;
+import com.socialstory.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Editor autosaves change content and record the editor, but never the status or place in the approval queue
+ */
+class StoryAutosaveTest extends MySqlIntegrationTest {
+
+    @Test
+    void autosavesKeepAPublishedStoryPublished() throws Exception {
+        Story story = saveStory(Story.StoryStatus.PUBLISHED, 2, 1);
+        StoryPage page = story.getPages().get(0);
+        User editor = saveUser();
+
+        mockMvc.perform(patch("/stories/edit/{storyId}/pages/{pageId}", story.getId(), page.getId())
+                        .with(oauth2Login())
+                        .cookie(sessionOf(editor, false))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"Autosaved text\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(put("/stories/edit/{storyId}/pages/{pageId}/questions", story.getId(), page.getId())
+                        .with(oauth2Login())
+                        .cookie(sessionOf(editor, false))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"New question\", \"option1\": \"Yes\", \"option2\": \"No\", \"correctOptionIndex\": 1}"))
+                .andExpect(status().isOk());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT status, changed_by, submitted_for_approval_at FROM stories WHERE id = ?", story.getId());
+        assertThat(row.get("status")).isEqualTo("PUBLISHED");
+        assertThat(row.get("changed_by")).isEqualTo(editor.getEmail());
+        assertThat(row.get("submitted_for_approval_at")).isNull();
+        List<String> texts = jdbcTemplate.queryForList("SELECT text FROM story_pages WHERE id = ?", String.class, page.getId());
+        assertThat(texts).containsExactly("Autosaved text");
+    }
+}
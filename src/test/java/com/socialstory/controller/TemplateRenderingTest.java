@@ -0,0 +1,113 @@
+package com.socialstory.controller;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.Story;
+import com.socialstory.model.StoryPage;
+import com.socialstory.model.User;
+import com.socialstory.model.UserAdmin;
+import com.socialstory.service.CustomOAuth2UserService;
+import com.socialstory.service.UserAdminService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.OAuth2LoginRequestPostProcessor;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Renders every page template with open-session-in-view off and cold caches, so any template or JSON view that
+ * walks a lazy association outside the service transaction fails here with a LazyInitializationException
+ * instead of in production.
+ */
+class TemplateRenderingTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private Story published;
+    private Story pending;
+    private User reader;
+
+    @BeforeEach
+    void seed() {
+        published = saveStory(Story.StoryStatus.PUBLISHED, 3, 2);
+        pending = saveStory(Story.StoryStatus.PENDING, 2, 1);
+        reader = saveUser();
+        jdbcTemplate.update("INSERT INTO user_story_interactions "
+                        + "(user_id, story_id, first_read_at, last_read_at, read_count, completed, last_page_read, favorite) "
+                        + "VALUES (?, ?, NOW(), NOW(), 1, 0, 1, 1)",
+                reader.getId(), published.getId());
+        clearCaches();
+    }
+
+    @Test
+    void openSessionInViewIsOff() {
+        assertThat(openInView).as("spring.jpa.open-in-view").isFalse();
+    }
+
+    @Test
+    void readerPagesRender() throws Exception {
+        assertRenders(get("/stories"), "story/list");
+        assertRenders(get("/stories").cookie(sessionOf(reader, false)), "story/list");
+        assertRenders(get("/stories/view/{id}", published.getId()), "story/view");
+        assertRenders(get("/stories/view/{id}", published.getId()).cookie(sessionOf(reader, false)), "story/view");
+        assertRenders(get("/login"), "auth/login");
+        assertRenders(get("/about"), "about");
+    }
+
+    @Test
+    void editorPagesRender() throws Exception {
+        assertRenders(get("/stories/create").with(oauth2Login()), "story/create");
+        assertRenders(get("/stories/edit/{id}", published.getId()).with(oauth2Login()), "story/edit");
+    }
+
+    @Test
+    void questionApisSerialize() throws Exception {
+        StoryPage page = published.getPages().get(0);
+        assertRenders(get("/stories/api/pages/{pageId}/questions", page.getId()), null);
+        assertRenders(get("/stories/api/stories/{storyId}/questions", published.getId()), null);
+    }
+
+    @Test
+    void adminPagesRender() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        userAdminService.setAccountType(email, UserAdmin.AccountType.ADMIN);
+        clearCaches();
+
+        assertRenders(get("/admin").with(admin(email)), "admin/index");
+        assertRenders(get("/admin/approvals").with(admin(email)), "admin/approvals");
+        assertRenders(get("/admin/approvals/view/{id}", pending.getId()).with(admin(email)), "story/view");
+    }
+
+    private static OAuth2LoginRequestPostProcessor admin(String email) {
+        return oauth2Login()
+                .attributes(attributes -> attributes.put("email", email))
+                .authorities(new SimpleGrantedAuthority(CustomOAuth2UserService.ROLE_ADMIN));
+    }
+
+    /**
+     * Perform the request and check it rendered completely; a failure while rendering is rethrown by MockMvc
+     */
+    private void assertRenders(RequestBuilder requestBuilder, String viewName) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+
+        assertThat(result.getResolvedException()).as("exception of %s", endpoint).isNull();
+        assertThat(result.getResponse().getStatus()).as("status of %s", endpoint).isEqualTo(200);
+        if (viewName != null) {
+            assertThat(result.getModelAndView()).as("view of %s", endpoint).isNotNull();
+            assertThat(result.getModelAndView().getViewName()).as("view of %s", endpoint).isEqualTo(viewName);
+        }
+    }
+}
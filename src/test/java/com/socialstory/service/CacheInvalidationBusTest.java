@@ -0,0 +1,99 @@
+package com.socialstory.service;
+
+import com.socialstory.MySqlIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two bus instances standing for two nodes sharing the cache_invalidations table
+ */
+class CacheInvalidationBusTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    private CacheInvalidationBus nodeA;
+    private CacheInvalidationBus nodeB;
+    private Cache cacheOfB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = new CacheInvalidationBus(jdbcTemplate, entityManagerFactory, "node-a", 5000, 60);
+        nodeB = new CacheInvalidationBus(jdbcTemplate, entityManagerFactory, "node-b", 5000, 60);
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("stories");
+        nodeB.setLocalCacheManager(cacheManager);
+        cacheOfB = cacheManager.getCache("stories");
+        // The first poll only positions the cursor
+        nodeA.poll();
+        nodeB.poll();
+    }
+
+    @Test
+    void appliesEvictionsOfOtherNodes() {
+        cacheOfB.put(1L, "story 1");
+        cacheOfB.put(2L, "story 2");
+
+        nodeA.publish("stories", 1L);
+        nodeA.poll();
+        nodeB.poll();
+
+        assertThat(cacheOfB.get(1L)).isNull();
+        assertThat(cacheOfB.get(2L)).isNotNull();
+        assertThat(nodeB.getStatistics()).containsEntry("received", 1L);
+    }
+
+    @Test
+    void appliesRowsCommittedAfterHigherIds() throws Exception {
+        cacheOfB.put(1L, "story 1");
+        cacheOfB.put(2L, "story 2");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            // Takes an id but commits only after a later row is already visible
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO cache_invalidations (cache_name, cache_key, key_type, origin_node) "
+                            + "VALUES ('stories', '1', 'L', 'node-c')")) {
+                statement.executeUpdate();
+            }
+
+            nodeA.publish("stories", 2L);
+            nodeA.poll();
+            nodeB.poll();
+            assertThat(cacheOfB.get(2L)).isNull();
+            assertThat(cacheOfB.get(1L)).isNotNull();
+
+            connection.commit();
+        }
+
+        nodeB.poll();
+        assertThat(cacheOfB.get(1L)).isNull();
+    }
+
+    @Test
+    void ignoresOwnRows() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("stories");
+        nodeA.setLocalCacheManager(cacheManager);
+        cacheManager.getCache("stories").put(1L, "story 1");
+
+        nodeA.publish("stories", 1L);
+        nodeA.poll();
+        nodeA.poll();
+
+        assertThat(cacheManager.getCache("stories").get(1L)).isNotNull();
+        assertThat(nodeA.getStatistics()).containsEntry("received", 0L);
+    }
+}
@@ -0,0 +1,32 @@
+package com.socialstory.service;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.Story;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dashboard's user and story totals come from the dashboard_totals counters, not from counting the tables
+ */
+class DashboardRollupServiceTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private DashboardRollupService dashboardRollupService;
+
+    @Autowired
+    private StoryDeletionService storyDeletionService;
+
+    @Test
+    void storyTotalFollowsDeletions() {
+        Story story = saveStory(Story.StoryStatus.PUBLISHED, 1, 0);
+        // Saved through the repository, so counted here the way StoryService.createStory does
+        dashboardRollupService.adjustTotal(DashboardRollupService.TOTAL_STORIES, 1);
+        long before = (Long) dashboardRollupService.getDashboardMetrics().get("totalStories");
+
+        storyDeletionService.deleteStory(story.getId());
+
+        assertThat(dashboardRollupService.getDashboardMetrics().get("totalStories")).isEqualTo(before - 1);
+    }
+}
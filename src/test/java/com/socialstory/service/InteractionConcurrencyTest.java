@@ -0,0 +1,116 @@
+package com.socialstory.service;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.InteractionEvent;
+import com.socialstory.model.Story;
+import com.socialstory.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent writes to one reader's interaction with a story must land on the single row the unique
+ * (user_id, story_id) key allows, without losing increments or favorite flips.
+ */
+class InteractionConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private InteractionEventApplier interactionEventApplier;
+
+    @Autowired
+    private UserService userService;
+
+    private ExecutorService pool;
+    private User reader;
+    private Story story;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(THREADS);
+        reader = saveUser();
+        story = saveStory(Story.StoryStatus.PUBLISHED, 2, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void parallelFirstViewsCreateOneRow() throws Exception {
+        runInParallel(THREADS, () -> {
+            interactionEventApplier.applyBatch(List.of(
+                    InteractionEvent.of(InteractionEvent.Type.VIEW, reader.getId(), story.getId(), 0, 1)));
+            return null;
+        });
+
+        List<Map<String, Object>> rows = interactionRows();
+        assertThat(rows).hasSize(1);
+        assertThat(((Number) rows.get(0).get("read_count")).intValue()).isEqualTo(THREADS);
+    }
+
+    @Test
+    void parallelFavoriteTogglesAndViewsKeepEveryWrite() throws Exception {
+        interactionEventApplier.applyBatch(List.of(
+                InteractionEvent.of(InteractionEvent.Type.VIEW, reader.getId(), story.getId(), 0, 1)));
+        long interactionId = ((Number) interactionRows().get(0).get("id")).longValue();
+
+        int toggles = 2 * THREADS;
+        List<Boolean> results = runInParallel(toggles, () -> {
+            interactionEventApplier.applyBatch(List.of(
+                    InteractionEvent.of(InteractionEvent.Type.VIEW, reader.getId(), story.getId(), 0, 2)));
+            return userService.toggleFavorite(interactionId);
+        });
+        // Applying the favorite events the toggles logged must leave the row as the last toggle left it
+        interactionEventApplier.applyPending();
+
+        // Each toggle saw its own flip, so half of them turned the favorite on
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(toggles / 2);
+        List<Map<String, Object>> rows = interactionRows();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).get("favorite")).isIn(false, 0);
+        assertThat(((Number) rows.get(0).get("read_count")).intValue()).isEqualTo(1 + toggles);
+        assertThat(((Number) rows.get(0).get("last_page_read")).intValue()).isEqualTo(2);
+    }
+
+    private List<Map<String, Object>> interactionRows() {
+        return jdbcTemplate.queryForList(
+                "SELECT id, read_count, favorite, last_page_read FROM user_story_interactions WHERE user_id = ? AND story_id = ?",
+                reader.getId(), story.getId());
+    }
+
+    /**
+     * Run the task the given number of times, released at once from the pool's threads, and return the results
+     */
+    private <T> List<T> runInParallel(int times, Callable<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
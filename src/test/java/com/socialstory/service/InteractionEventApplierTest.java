@@ -0,0 +1,68 @@
+package com.socialstory.service;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.InteractionEvent;
+import com.socialstory.model.Story;
+import com.socialstory.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InteractionEventApplierTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private InteractionEventApplier interactionEventApplier;
+
+    @Test
+    void countersWithoutAViewCreateTheRow() {
+        User reader = saveUser();
+        Story story = saveStory(Story.StoryStatus.PUBLISHED, 1, 0);
+
+        interactionEventApplier.applyBatch(List.of(
+                InteractionEvent.of(InteractionEvent.Type.TIME, reader.getId(), story.getId(), 0, 30),
+                InteractionEvent.of(InteractionEvent.Type.ANSWER, reader.getId(), story.getId(), 0, 1),
+                InteractionEvent.of(InteractionEvent.Type.FAVORITE, reader.getId(), story.getId(), 0, 1)));
+        interactionEventApplier.applyBatch(List.of(
+                InteractionEvent.of(InteractionEvent.Type.TIME, reader.getId(), story.getId(), 0, 15),
+                InteractionEvent.of(InteractionEvent.Type.COMPLETE, reader.getId(), story.getId(), 0, 0)));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT read_count, time_spent, questions_answered, questions_correct, completed, favorite "
+                        + "FROM user_story_interactions WHERE user_id = ? AND story_id = ?",
+                reader.getId(), story.getId());
+        assertThat(rows).hasSize(1);
+        Map<String, Object> row = rows.get(0);
+        assertThat(((Number) row.get("read_count")).intValue()).isZero();
+        assertThat(((Number) row.get("time_spent")).longValue()).isEqualTo(45);
+        assertThat(((Number) row.get("questions_answered")).intValue()).isEqualTo(1);
+        assertThat(((Number) row.get("questions_correct")).intValue()).isEqualTo(1);
+        assertThat(row.get("completed")).isIn(true, 1);
+        // The second batch had no favorite event and kept the first one's
+        assertThat(row.get("favorite")).isIn(true, 1);
+    }
+
+    @Test
+    void countersOfDeletedStoriesAreSkipped() {
+        User reader = saveUser();
+
+        interactionEventApplier.applyBatch(List.of(
+                InteractionEvent.of(InteractionEvent.Type.TIME, reader.getId(), Long.MAX_VALUE, 0, 30)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_story_interactions WHERE user_id = ?",
+                Integer.class, reader.getId())).isZero();
+    }
+
+    @Test
+    void countsIdKeyedUpdatesMatchingNoRow() {
+        long before = (Long) interactionEventApplier.getStatistics().get("unmatchedCounterUpdates");
+
+        interactionEventApplier.applyBatch(List.of(
+                InteractionEvent.forInteraction(InteractionEvent.Type.TIME, Long.MAX_VALUE, 30)));
+
+        assertThat(interactionEventApplier.getStatistics()).containsEntry("unmatchedCounterUpdates", before + 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.socialstory.service;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.User;
+import com.socialstory.repository.UserSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archiving purges old user_sessions rows, but the per-user history stays queryable from the daily summaries
+ */
+class RetentionServiceTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Test
+    void averageSessionDurationSurvivesTheArchive() throws Exception {
+        User reader = saveUser();
+        // Older than anything other tests leave behind, so this run archives it first
+        LocalDateTime old = LocalDateTime.now().minusYears(10).withHour(12);
+        session(reader, old, 100L);
+        session(reader, old.plusHours(1), 300L);
+        session(reader, old.plusHours(2), null);
+        session(reader, LocalDateTime.now().minusHours(1), 800L);
+
+        assertThat(userSessionRepository.getAverageSessionDurationForUser(reader.getId())).isEqualTo(400.0);
+
+        retentionService.archiveSessions();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_sessions WHERE user_id = ?",
+                Long.class, reader.getId())).isEqualTo(1L);
+        assertThat(userSessionRepository.getAverageSessionDurationForUser(reader.getId())).isEqualTo(400.0);
+    }
+
+    private void session(User user, LocalDateTime loginTime, Long duration) {
+        jdbcTemplate.update("INSERT INTO user_sessions (user_id, login_time, logout_time, session_duration) VALUES (?, ?, ?, ?)",
+                user.getId(), Timestamp.valueOf(loginTime),
+                duration != null ? Timestamp.valueOf(loginTime.plusSeconds(duration)) : null, duration);
+    }
+}
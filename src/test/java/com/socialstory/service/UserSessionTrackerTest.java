@@ -0,0 +1,68 @@
+package com.socialstory.service;
+
+import com.socialstory.MySqlIntegrationTest;
+import com.socialstory.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The sweeper against the Spring Session table: open rows of live sessions are refreshed, inactive ones are closed
+ */
+class UserSessionTrackerTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private UserSessionTracker userSessionTracker;
+
+    @Test
+    void sweepRefreshesLiveSessionsAndClosesOrphans() {
+        User reader = saveUser();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        String sessionId = UUID.randomUUID().toString();
+        Instant lastAccess = now.minusMinutes(1).atZone(ZoneId.systemDefault()).toInstant();
+        jdbcTemplate.update("INSERT INTO SPRING_SESSION (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME, "
+                        + "MAX_INACTIVE_INTERVAL, EXPIRY_TIME, PRINCIPAL_NAME) VALUES (?, ?, ?, ?, 1800, ?, ?)",
+                UUID.randomUUID().toString(), sessionId, lastAccess.toEpochMilli(), lastAccess.toEpochMilli(),
+                lastAccess.plusSeconds(1800).toEpochMilli(), reader.getEmail());
+        long live = openSession(reader, UserSessionTracker.sessionKey(sessionId), now.minusHours(2), now.minusHours(2));
+        long expired = openSession(reader, UserSessionTracker.sessionKey(UUID.randomUUID().toString()),
+                now.minusHours(3), now.minusHours(2));
+        long legacy = openSession(reader, null, now.minusDays(2), null);
+
+        userSessionTracker.sweepExpiredSessions();
+
+        Map<String, Object> liveRow = sessionRow(live);
+        assertThat(liveRow.get("logout_time")).isNull();
+        assertThat(liveRow.get("last_seen_at")).isEqualTo(now.minusMinutes(1));
+
+        Map<String, Object> expiredRow = sessionRow(expired);
+        assertThat(expiredRow.get("logout_time")).isEqualTo(now.minusHours(2));
+        assertThat(((Number) expiredRow.get("session_duration")).longValue()).isEqualTo(3600);
+
+        Map<String, Object> legacyRow = sessionRow(legacy);
+        assertThat(legacyRow.get("logout_time")).isNotNull();
+        assertThat(legacyRow.get("session_duration")).isNull();
+    }
+
+    private long openSession(User user, String sessionKey, LocalDateTime loginTime, LocalDateTime lastSeenAt) {
+        jdbcTemplate.update("INSERT INTO user_sessions (user_id, session_key, login_time, last_seen_at) VALUES (?, ?, ?, ?)",
+                user.getId(), sessionKey, Timestamp.valueOf(loginTime),
+                lastSeenAt != null ? Timestamp.valueOf(lastSeenAt) : null);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM user_sessions WHERE user_id = ?", Long.class, user.getId());
+    }
+
+    private Map<String, Object> sessionRow(long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT logout_time, last_seen_at, session_duration FROM user_sessions WHERE id = ?", id);
+    }
+}
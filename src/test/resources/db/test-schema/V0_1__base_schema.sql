@@ -0,0 +1,97 @@
+-- Tables created by Hibernate before schema migrations were introduced. Production databases were baselined at
+-- version 0 with these in place; the test database starts empty, so they are created before V1.
+CREATE TABLE app_users (
+    id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email             VARCHAR(255) NULL,
+    first_name        VARCHAR(255) NULL,
+    last_name         VARCHAR(255) NULL,
+    picture_url       VARCHAR(255) NULL,
+    oauth_id          VARCHAR(255) NULL UNIQUE,
+    created_at        DATETIME(6)  NULL,
+    last_logged_in_at DATETIME(6)  NULL,
+    total_visits      INT          NOT NULL
+);
+
+CREATE TABLE user_admin (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    account_type VARCHAR(255) NOT NULL,
+    created_at   DATETIME(6)  NULL
+);
+
+CREATE TABLE stories (
+    id                        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title                     TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    created_at                DATETIME(6)  NULL,
+    updated_at                DATETIME(6)  NULL,
+    tags                      TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    cover_image_path          VARCHAR(255) NULL,
+    status                    VARCHAR(255) NULL,
+    changed_by                VARCHAR(255) NULL,
+    submitted_for_approval_at DATETIME(6)  NULL,
+    approved_by               VARCHAR(255) NULL,
+    approved_at               DATETIME(6)  NULL,
+    image_migrated            BIT(1)       NOT NULL,
+    INDEX idx_story_created_at (created_at)
+);
+
+CREATE TABLE story_pages (
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    text           TEXT         NULL,
+    image_path     VARCHAR(255) NULL,
+    page_order     INT          NULL,
+    story_id       BIGINT       NULL,
+    image_migrated BIT(1)       NOT NULL,
+    CONSTRAINT fk_story_pages_story FOREIGN KEY (story_id) REFERENCES stories (id)
+);
+
+CREATE TABLE questions (
+    id                   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    text                 TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    option1              TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    option2              TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    correct_option_index INT    NULL,
+    page_id              BIGINT NULL,
+    CONSTRAINT fk_questions_page FOREIGN KEY (page_id) REFERENCES story_pages (id)
+);
+
+CREATE TABLE user_story_interactions (
+    id                 BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id            BIGINT      NULL,
+    story_id           BIGINT      NULL,
+    first_read_at      DATETIME(6) NULL,
+    last_read_at       DATETIME(6) NULL,
+    read_count         INT         NOT NULL,
+    completed          BIT(1)      NOT NULL,
+    last_page_read     INT         NOT NULL,
+    questions_answered INT         NULL,
+    questions_correct  INT         NULL,
+    time_spent         BIGINT      NULL,
+    favorite           BIT(1)      NOT NULL,
+    CONSTRAINT fk_usi_user FOREIGN KEY (user_id) REFERENCES app_users (id),
+    CONSTRAINT fk_usi_story FOREIGN KEY (story_id) REFERENCES stories (id)
+);
+
+CREATE TABLE user_sessions (
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id          BIGINT       NULL,
+    login_time       DATETIME(6)  NULL,
+    logout_time      DATETIME(6)  NULL,
+    ip_address       VARCHAR(255) NULL,
+    user_agent       VARCHAR(255) NULL,
+    device_type      VARCHAR(255) NULL,
+    session_duration BIGINT       NULL,
+    CONSTRAINT fk_user_sessions_user FOREIGN KEY (user_id) REFERENCES app_users (id)
+);
+
+CREATE TABLE story_archive (
+    id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    original_story_id BIGINT       NULL,
+    title             TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    content           TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL,
+    created_at        DATETIME(6)  NULL,
+    submitted_at      DATETIME(6)  NULL,
+    rejected_at       DATETIME(6)  NULL,
+    rejected_by       VARCHAR(255) NULL,
+    rejection_reason  TEXT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL
+);